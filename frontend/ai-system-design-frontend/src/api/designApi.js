@@ -5,9 +5,55 @@ export const createDesign = async ({ prompt, style, complexity, services }) => {
   return data; // DesignResponseDTO
 };
 
-export const listDesigns = async () => {
-  const { data } = await api.get("/designs");
-  return data; // DesignResponseDTO[]
+// POST /designs/stream: calls onEvent(name, data) for each server-sent event and
+// resolves with the persisted design once the "persisted" event arrives
+export const createDesignStream = async ({ prompt, style, complexity, services }, onEvent) => {
+  const token = localStorage.getItem("token");
+  const res = await fetch(`${api.defaults.baseURL}/designs/stream`, {
+    method: "POST",
+    headers: {
+      "Content-Type": "application/json",
+      Accept: "text/event-stream",
+      ...(token ? { Authorization: `Bearer ${token}` } : {})
+    },
+    body: JSON.stringify({ prompt, style, complexity, services })
+  });
+  if (!res.ok || !res.body) {
+    throw new Error(`Stream request failed (${res.status})`);
+  }
+
+  const reader = res.body.getReader();
+  const decoder = new TextDecoder();
+  const result = {};
+  let buffer = "";
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buffer += decoder.decode(value, { stream: true });
+    let sep;
+    while ((sep = buffer.indexOf("\n\n")) >= 0) {
+      const block = buffer.slice(0, sep);
+      buffer = buffer.slice(sep + 2);
+      let name = "message";
+      const dataLines = [];
+      block.split("\n").forEach((line) => {
+        if (line.startsWith("event:")) name = line.slice(6).trim();
+        else if (line.startsWith("data:")) dataLines.push(line.slice(5));
+      });
+      const data = dataLines.length ? JSON.parse(dataLines.join("\n")) : null;
+      if (name === "error") throw new Error(data?.message || "Failed to generate design");
+      if (name === "persisted") result.id = data.id;
+      if (name === "queued") Object.assign(result, data);
+      onEvent?.(name, data);
+    }
+  }
+  return result;
+};
+
+// One page of design summaries (id, prompt, createdAt), newest first
+export const listDesigns = async ({ cursor, limit = 20 } = {}) => {
+  const { data } = await api.get("/designs", { params: { cursor, limit } });
+  return data; // { items: DesignSummaryDTO[], nextCursor }
 };
 
 export const getDesign = async (id) => {
@@ -15,7 +61,28 @@ export const getDesign = async (id) => {
   return data; // DesignResponseDTO
 };
 
+// Long-polls a queued job until its status changes (or ~25s pass) and returns DesignJobDTO
+export const getDesignJob = async (jobId, etag) => {
+  const res = await api.get(`/designs/jobs/${jobId}`, {
+    params: { waitSeconds: etag ? 25 : 0 },
+    headers: etag ? { "If-None-Match": etag } : {},
+    validateStatus: (status) => status === 200 || status === 304
+  });
+  return { job: res.status === 200 ? res.data : null, etag: res.headers.etag || etag };
+};
+
+export const waitForDesignJob = async (jobId) => {
+  let etag;
+  let job = null;
+  for (;;) {
+    const res = await getDesignJob(jobId, etag);
+    etag = res.etag;
+    job = res.job || job;
+    if (job && (job.status === "COMPLETED" || job.status === "FAILED")) return job;
+  }
+};
+
 export const getUserDesigns = async (userId) => {
   const { data } = await api.get(`/designs/user/${userId}`);
-  return data; // array of DesignResponseDTO
+  return data; // { items, nextCursor }
 };
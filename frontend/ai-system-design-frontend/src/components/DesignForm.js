@@ -1,5 +1,15 @@
 import React, { useState } from "react";
-import { createDesign } from "../api/designApi";
+import { createDesignStream } from "../api/designApi";
+
+const STAGE_LABELS = {
+  accepted: "Request accepted...",
+  "ai-started": "Generating Design...",
+  services: "Services ready...",
+  databases: "Databases ready...",
+  apis: "APIs ready...",
+  mermaid: "Diagram ready...",
+  persisted: "Saving..."
+};
 
 const DesignForm = ({ onCreated }) => {
   const [prompt, setPrompt] = useState("");
@@ -8,21 +18,26 @@ const DesignForm = ({ onCreated }) => {
   const [services, setServices] = useState("");
   const [loading, setLoading] = useState(false);
   const [err, setErr] = useState("");
+  const [stage, setStage] = useState("");
 
   const handleSubmit = async (e) => {
     e.preventDefault();
     setErr("");
     if (!prompt.trim()) return setErr("Please describe your system requirements");
     setLoading(true);
+    setStage("");
     try {
       const servicesList = services.trim().split(',').map(s => s.trim()).filter(s => s);  
-      const created = await createDesign({ prompt, style, complexity, services: servicesList });
+      const created = await createDesignStream(
+        { prompt, style, complexity, services: servicesList },
+        (event) => setStage(STAGE_LABELS[event] || "")
+      );
       console.log('API Response:', created);
       onCreated?.(created);
       setPrompt("");
       setServices("");  
     } catch (e) {
-      setErr(e?.response?.data?.message || "Failed to generate design. Please try again.");
+      setErr(e?.response?.data?.message || e?.message || "Failed to generate design. Please try again.");
     } finally {
       setLoading(false);
     }
@@ -129,7 +144,7 @@ const DesignForm = ({ onCreated }) => {
         {loading ? (
           <>
             <div className="spinner"></div>
-            Generating Design...
+            {stage || "Generating Design..."}
           </>
         ) : (
           <>
@@ -1,7 +1,7 @@
 import React, { useEffect, useState } from "react";
 import DesignForm from "../components/DesignForm";
 import DesignResult from "../components/DesignResult";
-import { listDesigns, getDesign } from "../api/designApi";
+import { listDesigns, getDesign, waitForDesignJob } from "../api/designApi";
 
 const Dashboard = () => {
   const [designs, setDesigns] = useState([]);
@@ -20,7 +20,7 @@ const Dashboard = () => {
     setErr("");
     setLoadingList(true);
     try {
-      const data = await listDesigns();
+      const { items: data } = await listDesigns();
       setDesigns(data);
       
       // Calculate statistics
@@ -45,8 +45,18 @@ const Dashboard = () => {
   }, []);
 
   const onCreated = async (created) => {
+    let designId = created.id;
+    if (!designId && created.jobId) {
+      // Advanced requests are queued; wait for the job to finish
+      const job = await waitForDesignJob(created.jobId);
+      if (job.status !== "COMPLETED") {
+        setErr(job.error || "Design generation failed");
+        return;
+      }
+      designId = job.designId;
+    }
     await refreshList();
-    const full = await getDesign(created.id);
+    const full = await getDesign(designId);
     setSelected(full);
     setViewMode("results");
   };
@@ -200,8 +210,9 @@ const Dashboard = () => {
                 <div 
                   key={d.id} 
                   className={`design-item ${selected?.id === d.id ? "selected" : ""}`}
-                  onClick={() => {
-                    setSelected(d);
+                  onClick={async () => {
+                    // List items are summaries; fetch the full design on selection
+                    setSelected(await getDesign(d.id));
                     setViewMode("results");
                   }}
                 >
@@ -0,0 +1,72 @@
+package com.aiassistant.backend.bench;
+
+import com.aiassistant.backend.util.BoundedFanOut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+// Wall time of one bulk request vs batch size and concurrency, with each AI call simulated as latencyMs of waiting.
+// The pool matches app.stream.poolSize; lanes above it only add queueing
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BoundedFanOutBenchmark {
+
+    @Param({"50", "200"})
+    public int items;
+
+    @Param({"1", "8", "32"})
+    public int concurrency;
+
+    @Param({"10"})
+    public long latencyMs;
+
+    private ExecutorService executor;
+    private List<Integer> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(16);
+        batch = IntStream.range(0, items).boxed().toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public long batch() {
+        LongAdder done = new LongAdder();
+        BoundedFanOut.<Integer, Integer>run(batch, concurrency, executor,
+                        i -> {
+                            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+                            return i;
+                        },
+                        (index, item, result, error) -> done.increment(),
+                        () -> false)
+                .join();
+        return done.sum();
+    }
+}
@@ -0,0 +1,52 @@
+package com.aiassistant.backend.bench;
+
+import com.aiassistant.backend.model.CompressedTextConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// CPU cost of content_blobs compression: paid once per new output on write, on every read of a design
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressedTextConverterBenchmark {
+
+    @Param({DesignPayloads.SMALL, DesignPayloads.LARGE})
+    public String size;
+
+    private CompressedTextConverter converter;
+    private String json;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp() {
+        converter = new CompressedTextConverter();
+        json = DesignPayloads.json(new ObjectMapper(), DesignPayloads.aiResponse(DesignPayloads.serviceCount(size)));
+        compressed = converter.convertToDatabaseColumn(json);
+        System.out.printf("%n%s payload: %d chars, %d bytes compressed%n", size, json.length(), compressed.length);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return converter.convertToDatabaseColumn(json);
+    }
+
+    @Benchmark
+    public String decompress() {
+        return converter.convertToEntityAttribute(compressed);
+    }
+}
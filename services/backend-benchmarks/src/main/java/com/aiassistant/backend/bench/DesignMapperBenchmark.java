@@ -0,0 +1,83 @@
+package com.aiassistant.backend.bench;
+
+import com.aiassistant.backend.dto.design.DesignResponseDTO;
+import com.aiassistant.backend.mapper.DesignMapper;
+import com.aiassistant.backend.model.ContentBlob;
+import com.aiassistant.backend.model.Design;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DesignMapperBenchmark {
+
+    @Param({DesignPayloads.SMALL, DesignPayloads.LARGE})
+    public String size;
+
+    private ObjectMapper objectMapper;
+    private DesignMapper mapper;
+    private Design validated;
+    private Design legacy;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules(); // createdAt is an Instant
+        mapper = new DesignMapper(objectMapper);
+        String json = DesignPayloads.json(objectMapper, DesignPayloads.aiResponse(DesignPayloads.serviceCount(size)));
+        validated = design(json, true);
+        legacy = design(json, null);
+    }
+
+    // Rows written since validation at write time: rawOutput is passed through
+    @Benchmark
+    public DesignResponseDTO toDTOValidated() {
+        return mapper.toDTO(validated);
+    }
+
+    // Older rows: token scan before passthrough
+    @Benchmark
+    public DesignResponseDTO toDTOLegacy() {
+        return mapper.toDTO(legacy);
+    }
+
+    // What the client actually pays for: mapping plus writing the response body
+    @Benchmark
+    public String toDTOAndWrite() throws Exception {
+        return objectMapper.writeValueAsString(mapper.toDTO(validated));
+    }
+
+    private Design design(String json, Boolean valid) {
+        Design d = new Design();
+        d.setId(42L);
+        d.setPrompt("Design a marketplace");
+        d.setRawOutputBlob(blob(json));
+        d.setRawOutputValid(valid);
+        d.setMermaidBlob(blob("flowchart LR\n  A --> B\n"));
+        d.setCreatedAt(Instant.now());
+        return d;
+    }
+
+    private ContentBlob blob(String text) {
+        ContentBlob blob = new ContentBlob();
+        blob.setContent(text);
+        return blob;
+    }
+}
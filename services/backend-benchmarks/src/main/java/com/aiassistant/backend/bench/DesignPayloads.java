@@ -0,0 +1,77 @@
+package com.aiassistant.backend.bench;
+
+import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// AI responses shaped like the ai-service output: "small" is a typical design, "large" a catalogue of hundreds of services
+final class DesignPayloads {
+
+    static final String SMALL = "small";
+    static final String LARGE = "large";
+
+    private DesignPayloads() {
+    }
+
+    static int serviceCount(String size) {
+        return LARGE.equals(size) ? 500 : 6;
+    }
+
+    static Map<String, Object> aiResponse(int services) {
+        List<Map<String, Object>> serviceList = new ArrayList<>();
+        List<Map<String, Object>> apis = new ArrayList<>();
+        StringBuilder mermaid = new StringBuilder("flowchart LR\n  U[User] --> G[API Gateway]\n");
+        for (int i = 0; i < services; i++) {
+            String name = "service-" + i;
+            Map<String, Object> service = new LinkedHashMap<>();
+            service.put("name", name);
+            service.put("responsibilities", List.of("Owns the " + name + " bounded context", "Publishes its domain events"));
+            service.put("techSuggestions", List.of("Spring Boot", "Kafka", i % 2 == 0 ? "PostgreSQL" : "Redis"));
+            service.put("events", List.of(name.toUpperCase() + "_CREATED", name.toUpperCase() + "_UPDATED"));
+            serviceList.add(service);
+            apis.add(Map.of("service", name, "path", "/api/v1/" + name + "/{id}", "method", i % 3 == 0 ? "POST" : "GET",
+                    "requestSchema", Map.of("id", "string"), "responseSchema", Map.of("id", "string", "status", "string")));
+            mermaid.append("  G --> S").append(i).append('[').append(name).append("]\n");
+        }
+        List<Map<String, Object>> databases = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, services / 10); i++) {
+            databases.add(Map.of("name", "db-" + i, "type", i % 2 == 0 ? "postgres" : "mongo",
+                    "schemaDDL", "CREATE TABLE items (id BIGINT PRIMARY KEY, payload JSONB)"));
+        }
+
+        Map<String, Object> design = new LinkedHashMap<>();
+        design.put("services", serviceList);
+        design.put("databases", databases);
+        design.put("apis", apis);
+        design.put("diagrams", List.of(Map.of("type", "mermaid", "content", mermaid.toString())));
+        design.put("notes", "Use the outbox pattern for cross-service events and cache read models at the edge.");
+        design.put("provided_services", List.of());
+        return design;
+    }
+
+    static CreateDesignRequestDTO request(int services) {
+        CreateDesignRequestDTO req = new CreateDesignRequestDTO();
+        req.setPrompt("Design a marketplace with search, payments and notifications");
+        req.setStyle("microservices");
+        req.setComplexity("advanced");
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < services; i++) {
+            names.add("service-" + i);
+        }
+        req.setServices(names);
+        return req;
+    }
+
+    static String json(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
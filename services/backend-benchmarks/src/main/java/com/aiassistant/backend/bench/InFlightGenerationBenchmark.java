@@ -0,0 +1,147 @@
+package com.aiassistant.backend.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Wall time for a wave of blocking generations against an AI stub with fixed latency, with each request on a
+// platform thread (Tomcat's default 200) or a virtual thread. guard=synchronized holds a monitor across the call,
+// which pins the virtual thread to its carrier before JDK 24, so that run falls back to about one call per core.
+// Needs Java 21+ for the virtual mode: run the jar on it with -p mode=virtual
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InFlightGenerationBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final byte[] DESIGN = "{\"services\":[],\"databases\":[],\"apis\":[]}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REQUEST = "{\"prompt\":\"bench\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"none", "synchronized"})
+    public String guard;
+
+    @Param({"1000"})
+    public int requests;
+
+    @Param({"200"})
+    public long latencyMs;
+
+    private HttpServer aiService;
+    private URL url;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void startStub() throws IOException {
+        aiService = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        aiService.setExecutor(Executors.newCachedThreadPool());
+        aiService.createContext("/generate", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, DESIGN.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(DESIGN);
+            }
+        });
+        aiService.start();
+        url = new URL("http://127.0.0.1:" + aiService.getAddress().getPort() + "/generate");
+    }
+
+    @Setup(Level.Iteration)
+    public void startExecutor() {
+        executor = "virtual".equals(mode) ? newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopStub() {
+        aiService.stop(0);
+    }
+
+    @Benchmark
+    public int wave() throws Exception {
+        List<Future<Integer>> calls = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            calls.add(executor.submit(() -> "synchronized".equals(guard) ? generateHoldingMonitor() : generate()));
+        }
+        int bytes = 0;
+        for (Future<Integer> call : calls) {
+            bytes += call.get();
+        }
+        return bytes;
+    }
+
+    private int generateHoldingMonitor() {
+        Object monitor = new Object(); // uncontended: only the pinning matters
+        synchronized (monitor) {
+            return generate();
+        }
+    }
+
+    // Same shape as the Feign call: blocking POST, read the whole body
+    private int generate() {
+        try {
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            conn.setRequestMethod("POST");
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(REQUEST);
+            }
+            try (InputStream in = conn.getInputStream()) {
+                return in.readAllBytes().length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Compiled for Java 17, so the Java 21 factory is looked up reflectively
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21+", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.aiassistant.backend.bench;
+
+import com.aiassistant.backend.dto.design.AIDesignDTO;
+import com.aiassistant.backend.util.JsonValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonValidatorBenchmark {
+
+    @Param({DesignPayloads.SMALL, DesignPayloads.LARGE})
+    public String size;
+
+    private JsonValidator validator;
+    private String json;
+    private AIDesignDTO design;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        validator = new JsonValidator(objectMapper);
+        json = DesignPayloads.json(objectMapper, DesignPayloads.aiResponse(DesignPayloads.serviceCount(size)));
+        design = objectMapper.convertValue(DesignPayloads.aiResponse(DesignPayloads.serviceCount(size)), AIDesignDTO.class);
+    }
+
+    @Benchmark
+    public void validateDesign() {
+        validator.validateDesign(json);
+    }
+
+    @Benchmark
+    public void validateDecodedDesign() {
+        validator.validateDesign(design);
+    }
+}
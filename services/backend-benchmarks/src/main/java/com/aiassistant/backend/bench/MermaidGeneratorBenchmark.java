@@ -0,0 +1,53 @@
+package com.aiassistant.backend.bench;
+
+import com.aiassistant.backend.util.MermaidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MermaidGeneratorBenchmark {
+
+    @Param({DesignPayloads.SMALL, DesignPayloads.LARGE})
+    public String size;
+
+    private MermaidGenerator generator;
+    private Map<String, Object> rawOutput;
+    private String mermaid;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        generator = new MermaidGenerator();
+        rawOutput = DesignPayloads.aiResponse(DesignPayloads.serviceCount(size));
+        List<Map<String, Object>> diagrams = (List<Map<String, Object>>) rawOutput.get("diagrams");
+        mermaid = (String) diagrams.get(0).get("content");
+    }
+
+    @Benchmark
+    public String generateOrValidateMermaid() {
+        return generator.generateOrValidateMermaid(mermaid);
+    }
+
+    @Benchmark
+    public String generateMermaidFromRawOutput() {
+        return generator.generateMermaidFromRawOutput(rawOutput);
+    }
+}
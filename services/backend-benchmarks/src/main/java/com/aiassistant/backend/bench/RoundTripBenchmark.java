@@ -0,0 +1,76 @@
+package com.aiassistant.backend.bench;
+
+import com.aiassistant.backend.dto.design.AIDesignDTO;
+import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import com.aiassistant.backend.util.JsonValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The serialize/parse work around one design, mirroring DesignService.fetchAIResponse/extractMermaid
+ * and DesignJobConsumer.onMessage. Inputs start as raw JSON, as they arrive over the wire.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+    @Param({DesignPayloads.SMALL, DesignPayloads.LARGE})
+    public String size;
+
+    private ObjectMapper objectMapper;
+    private JsonValidator validator;
+    private String aiResponseBody;
+    private String jobPayload;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        validator = new JsonValidator(objectMapper);
+        int services = DesignPayloads.serviceCount(size);
+        aiResponseBody = DesignPayloads.json(objectMapper, DesignPayloads.aiResponse(services));
+        jobPayload = DesignPayloads.json(objectMapper,
+                Map.of("requestId", 7L, "userId", 3L, "req", DesignPayloads.request(services)));
+    }
+
+    // HTTP body -> AIDesignDTO (Feign decode) -> validation -> JSON for storage -> Mermaid lookup
+    @Benchmark
+    public String createDesignPath() throws Exception {
+        AIDesignDTO design = objectMapper.readValue(aiResponseBody, AIDesignDTO.class);
+        validator.validateDesign(design);
+        String json = objectMapper.writeValueAsString(design);
+        return json.length() > 0 ? design.firstDiagramContent() : null;
+    }
+
+    // Baseline: the earlier Map decode -> JSON -> tree (validation) -> tree (Mermaid) sequence
+    @Benchmark
+    public String createDesignPathMapAndTrees() throws Exception {
+        Map<String, Object> decoded = objectMapper.readValue(aiResponseBody, Map.class);
+        String json = objectMapper.writeValueAsString(decoded);
+        validator.validateDesign(json);
+        return objectMapper.readTree(json).path("diagrams").path(0).path("content").asText();
+    }
+
+    // Kafka payload -> Map -> request DTO
+    @Benchmark
+    public CreateDesignRequestDTO consumerPath() throws Exception {
+        Map<String, Object> data = objectMapper.readValue(jobPayload, Map.class);
+        return objectMapper.convertValue(data.get("req"), CreateDesignRequestDTO.class);
+    }
+}
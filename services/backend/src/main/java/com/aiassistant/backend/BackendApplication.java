@@ -2,9 +2,11 @@ package com.aiassistant.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.aiassistant.backend.client")
+@EnableScheduling
 public class BackendApplication {
 
 	public static void main(String[] args) {
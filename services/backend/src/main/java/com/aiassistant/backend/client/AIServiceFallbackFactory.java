@@ -0,0 +1,58 @@
+package com.aiassistant.backend.client;
+
+import com.aiassistant.backend.dto.design.AIDesignDTO;
+import com.aiassistant.backend.dto.design.DiagramDTO;
+import com.aiassistant.backend.dto.design.ServiceDTO;
+import com.aiassistant.backend.util.MermaidGenerator;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Used while the ai-service breaker is open or its bulkhead is full: answers with a degraded design
+ * built from the requested services. Any other failure is rethrown to the caller as before.
+ */
+@Component
+@RequiredArgsConstructor
+public class AIServiceFallbackFactory implements FallbackFactory<AIServiceClient> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIServiceFallbackFactory.class);
+
+    private final MermaidGenerator mermaidGenerator;
+
+    @Override
+    public AIServiceClient create(Throwable cause) {
+        return req -> {
+            if (!(cause instanceof CallNotPermittedException) && !(cause instanceof BulkheadFullException)) {
+                throw cause instanceof RuntimeException re ? re : new RuntimeException(cause);
+            }
+            logger.warn("AI service unavailable ({}), returning degraded design", cause.getMessage());
+            List<String> requested = req.getServices() != null ? req.getServices() : List.of();
+
+            AIDesignDTO design = new AIDesignDTO();
+            design.setServices(requested.stream().map(name -> {
+                ServiceDTO service = new ServiceDTO();
+                service.setName(name);
+                service.setResponsibilities(List.of());
+                return service;
+            }).toList());
+            design.setDatabases(List.of());
+            design.setApis(List.of());
+            DiagramDTO diagram = new DiagramDTO();
+            diagram.setType("mermaid");
+            diagram.setContent(mermaidGenerator.generateMermaidFromRawOutput(Map.of("provided_services", requested)));
+            design.setDiagrams(List.of(diagram));
+            design.setNotes("The AI service is temporarily unavailable; this outline only covers the requested services.");
+            design.setProvidedServices(requested);
+            design.setDegraded(true);
+            return design;
+        };
+    }
+}
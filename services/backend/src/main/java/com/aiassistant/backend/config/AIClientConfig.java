@@ -0,0 +1,66 @@
+package com.aiassistant.backend.config;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4jBulkheadProvider;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Circuit breaker and bulkhead guarding AIServiceClient. Transport pooling and timeouts live in application.yml.
+@Configuration
+public class AIClientConfig {
+
+    public static final String AI_SERVICE = "ai-service";
+
+    // One breaker per Feign client rather than per method signature
+    @Bean
+    public CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> aiServiceCircuitBreaker(
+            @Value("${app.ai.breaker.failureRate:50}") float failureRate,
+            @Value("${app.ai.breaker.slowCallMs:20000}") long slowCallMs,
+            @Value("${app.ai.breaker.windowSize:20}") int windowSize,
+            @Value("${app.ai.breaker.openSeconds:30}") long openSeconds,
+            @Value("${app.ai.breaker.callTimeoutMs:35000}") long callTimeoutMs) {
+        CircuitBreakerConfig breaker = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(Math.min(10, windowSize))
+                .failureRateThreshold(failureRate)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMs))
+                .slowCallRateThreshold(80)
+                .waitDurationInOpenState(Duration.ofSeconds(openSeconds))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .build();
+        // Backstop only: kept above the Feign read timeout so the socket timeout normally fires first
+        TimeLimiterConfig timeLimiter = TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofMillis(callTimeoutMs))
+                .build();
+        return factory -> factory.configure(builder -> builder
+                .circuitBreakerConfig(breaker)
+                .timeLimiterConfig(timeLimiter), AI_SERVICE);
+    }
+
+    // Semaphore bulkhead (see enableSemaphoreDefaultBulkhead): callers beyond the limit are rejected at once
+    // and get the fallback instead of queueing on a thread
+    @Bean
+    public Customizer<Resilience4jBulkheadProvider> aiServiceBulkhead(
+            @Value("${app.ai.bulkhead.maxConcurrent:50}") int maxConcurrent,
+            @Value("${app.ai.bulkhead.maxWaitMs:0}") long maxWaitMs) {
+        BulkheadConfig bulkhead = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrent)
+                .maxWaitDuration(Duration.ofMillis(maxWaitMs))
+                .build();
+        return provider -> provider.configure(builder -> builder.bulkheadConfig(bulkhead), AI_SERVICE);
+    }
+}
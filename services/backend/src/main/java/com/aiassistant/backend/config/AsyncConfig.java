@@ -0,0 +1,58 @@
+package com.aiassistant.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Runs streamed generations so the servlet thread is released as soon as the SSE response is open.
+    // With spring.threads.virtual.enabled on Java 21+, each generation gets its own virtual thread instead
+    // of a pooled one; the concurrency limit keeps the same overall cap.
+    @Bean
+    public AsyncTaskExecutor designStreamExecutor(
+            Environment environment,
+            @Value("${app.stream.poolSize:16}") int poolSize,
+            @Value("${app.stream.queueCapacity:100}") int queueCapacity,
+            @Value("${app.stream.virtualConcurrency:1000}") int virtualConcurrency) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("design-stream-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(virtualConcurrency);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("design-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs queued advanced jobs once FairJobScheduler grants them a slot. The lane's maxRunning is the limit
+    // either way: it sizes the platform pool, and in virtual-thread mode each job gets its own virtual thread
+    // with no executor limit of its own (one would block the thread handing out the grant)
+    @Bean
+    public AsyncTaskExecutor designJobExecutor(
+            Environment environment,
+            @Value("${app.scheduler.advanced.maxRunning:3}") int maxRunning) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("design-job-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxRunning);
+        executor.setMaxPoolSize(maxRunning);
+        executor.setThreadNamePrefix("design-job-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,24 +1,23 @@
 package com.aiassistant.backend.config;
 
-import com.fasterxml.jackson.databind.ser.std.StringSerializer;
-import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.kafka.core.DefaultKafkaProducerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-
-import java.util.Map;
+import org.springframework.kafka.config.TopicBuilder;
 
+// KafkaTemplate and the listener container factory come from spring.kafka.* in application.yml
 @Configuration
 public class KafkaConfig {
 
+    public static final String DESIGN_JOBS_TOPIC = "design-jobs";
+
+    // Listener concurrency only helps up to the partition count, so both come from the same setting
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        Map<String, Object> props = Map.of(
-                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092",
-                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
-                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class
-        );
-        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    public NewTopic designJobsTopic(@Value("${app.kafka.jobs.partitions:3}") int partitions) {
+        return TopicBuilder.name(DESIGN_JOBS_TOPIC)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
     }
 }
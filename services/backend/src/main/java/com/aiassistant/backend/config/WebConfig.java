@@ -17,6 +17,7 @@ public class WebConfig {
                         .allowedOrigins("http://localhost:5173", "http://localhost:3000")
                         .allowedMethods("GET","POST","PUT","DELETE","PATCH","OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag") // lets the frontend send If-None-Match itself
                         .allowCredentials(true);
             }
         };
@@ -0,0 +1,12 @@
+package com.aiassistant.backend.config.jwt;
+
+import java.security.Principal;
+
+// Principal built only from signed token claims, so authenticated requests need no user lookup
+public record AuthenticatedUser(Long id, String email, String role, String plan) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,11 +1,14 @@
 package com.aiassistant.backend.config.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
@@ -13,12 +16,24 @@ import java.util.Map;
 @Component
 public class JwtTokenProvider {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String PLAN_CLAIM = "plan";
+
     private final Key key;
     private final long expirationMs;
+    private final JwtParser parser; // thread-safe, built once
+
+    // Tokens whose signature was already verified; entries still honour the token's own expiry
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(AuthenticatedUser user, long expiresAtMs) {}
 
     public JwtTokenProvider(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expirationMinutes}") long expMin) {
+            @Value("${app.jwt.expirationMinutes}") long expMin,
+            @Value("${app.jwt.verifiedCacheSize:10000}") long verifiedCacheSize,
+            @Value("${app.jwt.verifiedCacheTtlMinutes:5}") long verifiedCacheTtlMinutes) {
 
         if(secret.length() < 32) {
             throw new IllegalArgumentException("JWT secret must be at least 32 characters long");
@@ -27,6 +42,11 @@ public class JwtTokenProvider {
         byte[] keyBytes = Base64.getDecoder().decode(secret);
         this.key = Keys.hmacShaKeyFor(keyBytes);
         this.expirationMs = expMin * 60_000;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(verifiedCacheTtlMinutes))
+                .build();
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -42,7 +62,29 @@ public class JwtTokenProvider {
     }
 
     public String getSubject(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    // Verifies the token (or reuses an earlier verification) and builds the principal from its claims
+    public AuthenticatedUser authenticate(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (cached.expiresAtMs() > System.currentTimeMillis()) {
+                return cached.user();
+            }
+            verifiedTokens.invalidate(token);
+            throw new ExpiredJwtException(null, null, "JWT expired");
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        if (userId == null) {
+            // Issued before user ids were embedded; the client has to log in again
+            throw new MalformedJwtException("JWT has no user id claim");
+        }
+        AuthenticatedUser user = new AuthenticatedUser(userId.longValue(), claims.getSubject(),
+                claims.get(ROLE_CLAIM, String.class), claims.get(PLAN_CLAIM, String.class));
+        verifiedTokens.put(token, new VerifiedToken(user, claims.getExpiration().getTime()));
+        return user;
     }
 }
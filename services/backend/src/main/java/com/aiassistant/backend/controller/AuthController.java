@@ -4,6 +4,7 @@ import com.aiassistant.backend.dto.auth.AuthResponse;
 import com.aiassistant.backend.dto.auth.LoginRequest;
 import com.aiassistant.backend.dto.auth.SignupRequest;
 import com.aiassistant.backend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,12 +18,12 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/signup")
-    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest req) {
-        return ResponseEntity.ok(authService.signup(req));
+    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest req, HttpServletRequest request) {
+        return ResponseEntity.ok(authService.signup(req, request.getRemoteAddr()));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest req) {
-        return ResponseEntity.ok(authService.login(req));
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest req, HttpServletRequest request) {
+        return ResponseEntity.ok(authService.login(req, request.getRemoteAddr()));
     }
 }
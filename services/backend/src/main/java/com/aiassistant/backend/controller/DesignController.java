@@ -1,16 +1,47 @@
 package com.aiassistant.backend.controller;
 
+import com.aiassistant.backend.config.jwt.AuthenticatedUser;
+import com.aiassistant.backend.dto.common.CursorPage;
+import com.aiassistant.backend.dto.design.BatchDesignRequestDTO;
 import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import com.aiassistant.backend.dto.design.DesignApiDTO;
+import com.aiassistant.backend.dto.design.DesignDiffDTO;
+import com.aiassistant.backend.dto.design.DesignJobDTO;
+import com.aiassistant.backend.dto.design.DesignQueueDTO;
 import com.aiassistant.backend.dto.design.DesignResponseDTO;
+import com.aiassistant.backend.dto.design.DesignRevisionDTO;
+import com.aiassistant.backend.dto.design.DesignSearchResultDTO;
+import com.aiassistant.backend.dto.design.DesignSummaryDTO;
+import com.aiassistant.backend.service.DesignBatchService;
+import com.aiassistant.backend.service.DesignComponentService;
+import com.aiassistant.backend.service.DesignExportService;
+import com.aiassistant.backend.service.DesignJobService;
 import com.aiassistant.backend.service.DesignService;
+import com.aiassistant.backend.service.DesignStreamService;
+import com.aiassistant.backend.service.FairJobScheduler;
+import com.aiassistant.backend.service.GenerationQuota;
+import com.aiassistant.backend.util.DesignETags;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/designs")
@@ -18,27 +49,203 @@ import java.util.List;
 public class DesignController {
 
     private final DesignService designService;
+    private final DesignStreamService designStreamService;
+    private final DesignJobService designJobService;
+    private final DesignComponentService designComponentService;
+    private final DesignETags designETags;
+    private final DesignBatchService designBatchService;
+    private final DesignExportService designExportService;
+    private final GenerationQuota generationQuota;
+    private final FairJobScheduler fairJobScheduler;
+
+    // Per-user data: browsers may keep it but shared caches must not. Heads and lists can change (regeneration,
+    // new designs) and are revalidated on every use; a revision is fixed forever
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
 
     @PostMapping
     public ResponseEntity<DesignResponseDTO> create(@Valid @RequestBody CreateDesignRequestDTO req,
-                                                    @AuthenticationPrincipal org.springframework.security.core.userdetails.User principal) throws JsonProcessingException {
-        return ResponseEntity.ok(designService.createDesign(req, principal.getUsername()));
+                                                    @AuthenticationPrincipal AuthenticatedUser principal) throws JsonProcessingException {
+        DesignResponseDTO design = generationQuota.generate(principal.id(), principal.plan(),
+                () -> designService.createDesign(req, principal.id()));
+        if (design.getJobId() != null) {
+            // Queued: point the client at the job status resource
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/designs/jobs/" + design.getJobId()))
+                    .body(design);
+        }
+        return ResponseEntity.ok(design);
+    }
+
+    // Up to app.batch.maxItems designs in one call, generated in parallel. The response is NDJSON: one
+    // DesignBatchItemDTO line per item as it is saved or fails (completion order), then a DesignBatchSummaryDTO line
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> createBatch(@Valid @RequestBody BatchDesignRequestDTO req,
+                                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        // Plain emitters do not set a content type of their own
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(designBatchService.start(req, principal.id(), principal.plan()));
+    }
+
+    // All of the caller's designs, streamed as they are read: format=ndjson (one design per line)
+    // or format=zip (design-{id}.json and design-{id}.mmd per design)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = DesignExportService.NDJSON) String format,
+                                                        @AuthenticationPrincipal AuthenticatedUser principal,
+                                                        HttpServletRequest request) {
+        StreamingResponseBody body = designExportService.export(principal.id(), format, request);
+        boolean zip = DesignExportService.isZip(format);
+        String filename = "designs." + (zip ? DesignExportService.ZIP : DesignExportService.NDJSON);
+        return ResponseEntity.ok()
+                .contentType(zip ? APPLICATION_ZIP : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    // The caller's queued AI calls and recent waits per scheduler lane, on the node serving this request
+    @GetMapping("/jobs/queue")
+    public List<DesignQueueDTO> getQueue(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return fairJobScheduler.queueFor(principal.id());
     }
 
+    // Poll a queued job; send If-None-Match with waitSeconds > 0 to long-poll until it changes
+    @GetMapping("/jobs/{jobId}")
+    public DeferredResult<ResponseEntity<DesignJobDTO>> getJob(@PathVariable Long jobId,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                               @RequestParam(defaultValue = "0") long waitSeconds,
+                                                               @AuthenticationPrincipal AuthenticatedUser principal) {
+        return designJobService.poll(jobId, principal.id(), ifNoneMatch, waitSeconds);
+    }
+
+    // Same as create, but pushes progress and partial sections as server-sent events
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter createStream(@Valid @RequestBody CreateDesignRequestDTO req,
+                                   @AuthenticationPrincipal AuthenticatedUser principal) {
+        // Held until the generation finishes on the stream executor
+        GenerationQuota.Permit permit = generationQuota.acquire(principal.id(), principal.plan(), 1);
+        return designStreamService.stream(req, principal.id(), permit);
+    }
+
+    // Revalidation reads only the head revision number; the design is loaded and sent only when it changed
     @GetMapping("/{id}")
     public ResponseEntity<DesignResponseDTO> get(@PathVariable Long id,
-                                                 @AuthenticationPrincipal org.springframework.security.core.userdetails.User principal) {
-        return ResponseEntity.ok(designService.getDesign(id, principal.getUsername()));
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (ifNoneMatch != null) {
+            Optional<Integer> head = designService.headRevision(id, principal.id());
+            if (head.isPresent()) {
+                String etag = designETags.forRevision(principal.id(), id, head.get());
+                if (DesignETags.matches(ifNoneMatch, etag)) {
+                    return notModified(etag, REVALIDATE);
+                }
+            }
+        }
+        DesignResponseDTO design = designService.getDesign(id, principal.id());
+        return ResponseEntity.ok()
+                .eTag(designETags.forRevision(principal.id(), id, design.getRevision()))
+                .cacheControl(REVALIDATE)
+                .body(design);
     }
 
+    // New revision of a design from a fresh AI call; omitted fields default to the design's current prompt
+    @PostMapping("/{id}/revisions")
+    public ResponseEntity<DesignResponseDTO> regenerate(@PathVariable Long id,
+                                                        @RequestBody(required = false) CreateDesignRequestDTO req,
+                                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(generationQuota.generate(principal.id(), principal.plan(),
+                () -> designService.regenerateDesign(id, req, principal.id())));
+    }
+
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<List<DesignRevisionDTO>> revisions(@PathVariable Long id,
+                                                             @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(designService.listRevisions(id, principal.id()));
+    }
+
+    // Revisions never change: a matching If-None-Match is answered from the signed tag alone
+    @GetMapping("/{id}/revisions/{revision}")
+    public ResponseEntity<DesignResponseDTO> revision(@PathVariable Long id, @PathVariable int revision,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                      @AuthenticationPrincipal AuthenticatedUser principal) {
+        String etag = designETags.forRevision(principal.id(), id, revision);
+        if (DesignETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag, IMMUTABLE);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(IMMUTABLE)
+                .body(designService.getRevision(id, revision, principal.id()));
+    }
+
+    // JSON Patch from one revision to another; to defaults to the newest
+    @GetMapping("/{id}/diff")
+    public ResponseEntity<DesignDiffDTO> diff(@PathVariable Long id,
+                                              @RequestParam int from,
+                                              @RequestParam(required = false) Integer to,
+                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(designService.diffRevisions(id, from, to, principal.id()));
+    }
+
+    // Keyset-paginated, newest first; pass nextCursor back as cursor. full=true includes rawOutput and mermaidCode
     @GetMapping
-    public ResponseEntity<List<DesignResponseDTO>> list(@AuthenticationPrincipal org.springframework.security.core.userdetails.User principal) {
-        return ResponseEntity.ok(designService.listDesigns(principal.getUsername()));
+    public ResponseEntity<CursorPage<?>> list(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int limit,
+                                              @RequestParam(defaultValue = "false") boolean full,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        String version = designService.listVersion(principal.id());
+        String etag = designETags.forList(principal.id(), cursor + "|" + limit + "|" + full, version);
+        if (DesignETags.matches(ifNoneMatch, etag)) {
+            return notModified(etag, REVALIDATE);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(designService.listDesigns(principal.id(), cursor, limit, full));
+    }
+
+    // Ranked keyword search (web-search syntax: quotes, OR, -exclude); pass nextCursor back as cursor
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<DesignSearchResultDTO>> search(@RequestParam String q,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "20") int limit,
+                                                                    @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(designService.searchDesigns(principal.id(), q, cursor, limit));
+    }
+
+    // Structured filters over extracted components, e.g. ?tech=kafka&method=POST; all given filters must match
+    @GetMapping("/query")
+    public ResponseEntity<CursorPage<DesignSummaryDTO>> query(@RequestParam(required = false) String service,
+                                                              @RequestParam(required = false) String databaseType,
+                                                              @RequestParam(required = false) String tech,
+                                                              @RequestParam(required = false) String method,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int limit,
+                                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(designService.queryDesigns(principal.id(), service, databaseType, tech, method, cursor, limit));
+    }
+
+    // Every API the caller's designs define for one service
+    @GetMapping("/apis")
+    public ResponseEntity<List<DesignApiDTO>> apis(@RequestParam String service,
+                                                   @RequestParam(defaultValue = "100") int limit,
+                                                   @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(designComponentService.findApis(principal.id(), service, limit));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<DesignResponseDTO>> getDesignsByUser(@PathVariable Long userId){
-        List<DesignResponseDTO> designs = designService.getDesignsByUser(userId);
+    public ResponseEntity<CursorPage<?>> getDesignsByUser(@PathVariable Long userId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int limit,
+                                                          @RequestParam(defaultValue = "false") boolean full){
+        CursorPage<?> designs = designService.getDesignsByUser(userId, cursor, limit, full);
         return ResponseEntity.ok(designs);
     }
+
+    private static <T> ResponseEntity<T> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
 }
@@ -0,0 +1,59 @@
+package com.aiassistant.backend.dto.design;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.List;
+
+// Design as returned by the ai-service. Decoded in one streaming pass; fields it does not know are kept in extra.
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AIDesignDTO extends ExtensibleDTO {
+    private List<ServiceDTO> services;
+    private List<DatabaseDTO> databases;
+    private List<ApiDTO> apis;
+    private List<DiagramDTO> diagrams;
+    private Object notes; // a string per the ai-service schema, though LLM output sometimes uses a list
+    @JsonProperty("provided_services")
+    private List<String> providedServices;
+    private Boolean degraded; // set by the circuit-breaker fallback
+
+    // The required keys: JsonValidator checks they are present, and allows them to be null
+
+    public void setServices(List<ServiceDTO> services) {
+        this.services = services;
+        markPresent("services");
+    }
+
+    public void setDatabases(List<DatabaseDTO> databases) {
+        this.databases = databases;
+        markPresent("databases");
+    }
+
+    public void setApis(List<ApiDTO> apis) {
+        this.apis = apis;
+        markPresent("apis");
+    }
+
+    public void setDiagrams(List<DiagramDTO> diagrams) {
+        this.diagrams = diagrams;
+        markPresent("diagrams");
+    }
+
+    public void setNotes(Object notes) {
+        this.notes = notes;
+        markPresent("notes");
+    }
+
+    public String firstDiagramContent() {
+        if (diagrams == null || diagrams.isEmpty() || diagrams.get(0) == null) {
+            return null;
+        }
+        return diagrams.get(0).getContent();
+    }
+}
@@ -1,14 +1,18 @@
 package com.aiassistant.backend.dto.design;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
-
-import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
-public class ApiDTO {
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiDTO extends ExtensibleDTO {
     private String service;
     private String path;
     private String method;
-    private Map<String, Object> requestSchema;
-    private Map<String, Object> responseSchema;
-}
\ No newline at end of file
+    private Object requestSchema;  // object, or a string when the model describes it in prose
+    private Object responseSchema;
+}
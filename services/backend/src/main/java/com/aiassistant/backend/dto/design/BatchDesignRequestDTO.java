@@ -0,0 +1,14 @@
+package com.aiassistant.backend.dto.design;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchDesignRequestDTO {
+    @NotEmpty
+    private List<@Valid CreateDesignRequestDTO> items;
+    private Integer concurrency; // AI calls in flight at once; capped by app.batch.maxConcurrency
+}
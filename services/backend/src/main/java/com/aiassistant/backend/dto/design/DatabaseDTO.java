@@ -1,9 +1,15 @@
 package com.aiassistant.backend.dto.design;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
-public class DatabaseDTO {
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DatabaseDTO extends ExtensibleDTO {
     private String name;
     private String type; // postgres/mongo
     private String schemaDDL;
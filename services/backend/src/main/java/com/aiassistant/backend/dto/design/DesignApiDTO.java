@@ -0,0 +1,13 @@
+package com.aiassistant.backend.dto.design;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DesignApiDTO {
+    private Long designId;
+    private String service;
+    private String method;
+    private String path;
+}
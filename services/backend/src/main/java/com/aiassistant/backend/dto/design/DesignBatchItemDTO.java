@@ -0,0 +1,21 @@
+package com.aiassistant.backend.dto.design;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+// One NDJSON line per batch item, sent once it is saved (or has failed); lines arrive in completion order
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DesignBatchItemDTO {
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private int index; // position in the request's items
+    private String status;
+    private Long id;
+    private String prompt;
+    private Boolean degraded; // saved from the breaker fallback rather than a real AI answer
+    private String error;
+}
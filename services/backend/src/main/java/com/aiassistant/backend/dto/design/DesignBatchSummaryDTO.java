@@ -0,0 +1,15 @@
+package com.aiassistant.backend.dto.design;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Last NDJSON line of a batch
+@Data
+@Builder
+public class DesignBatchSummaryDTO {
+    private boolean done;
+    private int total;
+    private int created;
+    private int failed;
+    private long elapsedMs;
+}
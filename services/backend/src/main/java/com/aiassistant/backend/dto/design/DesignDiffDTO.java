@@ -0,0 +1,14 @@
+package com.aiassistant.backend.dto.design;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class DesignDiffDTO {
+    private Long designId;
+    private Integer from;
+    private Integer to;
+    private JsonNode patch; // JSON Patch (RFC 6902) over {prompt, rawOutput, mermaidCode}
+}
@@ -0,0 +1,18 @@
+package com.aiassistant.backend.dto.design;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class DesignJobDTO {
+    private Long id;
+    private String status; // QUEUED/RUNNING/COMPLETED/FAILED
+    private Long designId;
+    private String error;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant completedAt;
+}
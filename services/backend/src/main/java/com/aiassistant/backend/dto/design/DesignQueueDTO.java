@@ -0,0 +1,17 @@
+package com.aiassistant.backend.dto.design;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+// The caller's own place in one scheduler lane on the node serving the request
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DesignQueueDTO {
+    private String lane; // interactive/batch/advanced
+    private int queued;
+    private Long oldestWaitMs; // how long the caller's oldest queued call has waited so far
+    private long started; // calls started in the last hour or so
+    private Long meanWaitMs; // their mean wait for a slot
+}
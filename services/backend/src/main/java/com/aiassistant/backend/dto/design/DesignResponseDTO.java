@@ -1,14 +1,21 @@
 package com.aiassistant.backend.dto.design;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import lombok.Builder;
 import lombok.Data;
-import java.util.Map;
+
+import java.time.Instant;
 
 @Data
 @Builder
 public class DesignResponseDTO {
     private Long id;
     private String prompt;
-    private Map<String, Object> rawOutput; // Changed to Map<String, Object> for clarity
+    @JsonRawValue
+    private String rawOutput; // stored JSON written to the response as-is, never re-parsed
     private String mermaidCode;
+    private Instant createdAt;
+    private Integer revision;
+    private Long jobId;    // set when the request was queued instead of generated inline
+    private String status; // job status for queued requests
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.aiassistant.backend.dto.design;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Lineage entry: how a revision is stored, not its content
+@Data
+@AllArgsConstructor
+public class DesignRevisionDTO {
+    private Integer revision;
+    private Integer parentRevision;
+    private boolean snapshot;
+    private Integer storedSize; // characters stored for this revision (whole document or patch)
+    private Instant createdAt;
+}
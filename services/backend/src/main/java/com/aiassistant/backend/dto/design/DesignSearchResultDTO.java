@@ -0,0 +1,15 @@
+package com.aiassistant.backend.dto.design;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class DesignSearchResultDTO {
+    private Long id;
+    private String prompt;
+    private Instant createdAt;
+    private float rank;
+}
@@ -0,0 +1,15 @@
+package com.aiassistant.backend.dto.design;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+// List-view projection: no rawOutput/mermaidCode, so the text columns are never read
+@Data
+@AllArgsConstructor
+public class DesignSummaryDTO {
+    private Long id;
+    private String prompt;
+    private Instant createdAt;
+}
@@ -1,9 +1,25 @@
 package com.aiassistant.backend.dto.design;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
-public class DiagramDTO {
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DiagramDTO extends ExtensibleDTO {
     private String type;    // mermaid/plantuml
     private String content; // diagram text
+
+    public void setType(String type) {
+        this.type = type;
+        markPresent("type");
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+        markPresent("content");
+    }
 }
@@ -0,0 +1,46 @@
+package com.aiassistant.backend.dto.design;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base of the ai-service design DTOs. Fields a DTO does not model are kept in extra and written back out as
+ * they came; a key named "extra" is one of them, since extra itself has no setter. Subclasses also record
+ * which fields were set, so validation can tell a missing key from an explicit null.
+ */
+@EqualsAndHashCode
+@ToString
+public abstract class ExtensibleDTO {
+
+    private final Map<String, Object> extra = new LinkedHashMap<>();
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Set<String> present = new HashSet<>();
+
+    @JsonAnySetter
+    public void putExtra(String name, Object value) {
+        extra.put(name, value);
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtra() {
+        return extra;
+    }
+
+    // True once the field was set, even to null (decoded: the key was in the JSON)
+    public boolean has(String field) {
+        return present.contains(field);
+    }
+
+    protected void markPresent(String field) {
+        present.add(field);
+    }
+}
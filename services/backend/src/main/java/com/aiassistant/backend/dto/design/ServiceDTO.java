@@ -1,13 +1,21 @@
 package com.aiassistant.backend.dto.design;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.List;
 
 @Data
-public class ServiceDTO {
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ServiceDTO extends ExtensibleDTO {
     private String name;
     private List<String> responsibilities; // Changed to List<String>
+    @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY) // the ai-service may send a single string
     private List<String> techSuggestions;  // Changed to List<String>
     private List<String> events;
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.aiassistant.backend.exception;
+
+// 503: a shared resource is saturated; rejected fast instead of queuing without bound
+public class ServiceBusyException extends ApiException {
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,15 @@
+package com.aiassistant.backend.exception;
+
+// 429: the caller exceeded its own limit and should retry after retryAfterSeconds
+public class TooManyRequestsException extends ApiException {
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
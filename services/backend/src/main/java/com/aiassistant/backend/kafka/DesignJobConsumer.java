@@ -1,46 +1,126 @@
 package com.aiassistant.backend.kafka;
 
+import com.aiassistant.backend.config.KafkaConfig;
 import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import com.aiassistant.backend.metrics.DesignMetrics;
 import com.aiassistant.backend.model.User;
 import com.aiassistant.backend.repository.UserRepository;
-import com.aiassistant.backend.service.DesignService;
+import com.aiassistant.backend.service.DesignJobRunner;
+import com.aiassistant.backend.service.DesignJobService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.retrytopic.SameIntervalTopicReuseStrategy;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 @RequiredArgsConstructor
 public class DesignJobConsumer {
     private static final Logger logger = LoggerFactory.getLogger(DesignJobConsumer.class);
-    private final DesignService designService;
+    private static final TypeReference<Map<String, Object>> MESSAGE = new TypeReference<>() {}; // DesignJobProducer's payload
+    private static final String LISTENER_ID = "design-jobs"; // retry and DLQ listeners get this id plus their suffix
+    private final DesignJobService designJobService;
+    private final DesignJobRunner designJobRunner;
     private final ObjectMapper objectMapper;
     private final UserRepository userRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final DesignMetrics designMetrics;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final AtomicBoolean paused = new AtomicBoolean();
 
-    @KafkaListener(topics = "design-jobs", groupId = "${spring.kafka.consumer.group-id}")
-    public void onMessage(String payload) {
-        try {
+    // Failures to lease or queue go to design-jobs-retry-N with exponential backoff (without blocking the partition), then design-jobs-dlq
+    @RetryableTopic(
+            attempts = "${app.kafka.jobs.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${app.kafka.jobs.backoffMs:2000}",
+                    multiplierExpression = "${app.kafka.jobs.backoffMultiplier:2.0}",
+                    maxDelayExpression = "${app.kafka.jobs.maxBackoffMs:60000}"),
+            numPartitions = "${app.kafka.jobs.partitions:3}",
+            replicationFactor = "1",
+            dltTopicSuffix = "-dlq",
+            sameIntervalTopicReuseStrategy = SameIntervalTopicReuseStrategy.SINGLE_TOPIC,
+            exclude = JsonProcessingException.class) // a malformed payload will not parse on retry either
+    @KafkaListener(id = LISTENER_ID, topics = KafkaConfig.DESIGN_JOBS_TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${app.kafka.jobs.concurrency:3}")
+    public void onMessage(ConsumerRecord<String, String> record, Acknowledgment ack) throws JsonProcessingException {
+        String payload = record.value();
+        logger.info("Received Kafka message from {}-{}@{}: {}", record.topic(), record.partition(), record.offset(), payload);
+        Map<String, Object> data = objectMapper.readValue(payload, MESSAGE);
+        CreateDesignRequestDTO req = objectMapper.convertValue(data.get("req"), CreateDesignRequestDTO.class);
+        Long userId = ((Number) data.get("userId")).longValue();
+        Long requestId = requestId(data);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found for ID: " + userId));
+
+        // Messages from before job rows existed get one now, so they are leased and recovered like the rest
+        Long jobId = requestId != null ? requestId : designJobService.create(req, user).getId();
+        // Lease the job to this node and queue it for its user's turn in the advanced lane. The offset is
+        // committed only after the lease is in the row: from there DesignJobRunner renews it while the job
+        // waits or runs, and if this node stops, another takes the job over once the lease lapses.
+        // Failures to lease or queue go through the retry topics.
+        if (!designJobRunner.accept(jobId, req, user)) {
+            logger.info("Skipping design job {}: finished or held by another node", jobId);
+        }
+        ack.acknowledge();
+        if (!designJobRunner.hasCapacity()) {
+            pause();
+        }
+    }
 
-            logger.info("Received Kafka message: {}", payload);
-            Map<String, Object> data = objectMapper.readValue(payload, Map.class);
-            CreateDesignRequestDTO req = objectMapper.convertValue(data.get("req"), CreateDesignRequestDTO.class);
-            Long userId = ((Number) data.get("userId")).longValue();
-            // Call DesignService to process (assumes DesignService can handle async)
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found for ID: " + userId));
+    // Records already fetched are still delivered (and accepted past the limit); nothing more is polled until
+    // resumeWhenDrained, and the paused consumers keep polling, so the group does not rebalance
+    private void pause() {
+        if (paused.compareAndSet(false, true)) {
+            logger.warn("Design job queue full, pausing design job listeners");
+            containers().forEach(MessageListenerContainer::pause);
+        }
+    }
 
-            designService.createDesign(req, userId.toString()); // Update to use userId if needed
-            logger.info("Processed design job for userId: {}", userId);
+    @Scheduled(fixedDelayString = "${app.scheduler.advanced.resumeCheckMs:1000}")
+    public void resumeWhenDrained() {
+        if (paused.get() && designJobRunner.hasCapacity() && paused.compareAndSet(true, false)) {
+            logger.info("Design job queue has room again, resuming design job listeners");
+            containers().forEach(MessageListenerContainer::resume);
+        }
+    }
+
+    private List<MessageListenerContainer> containers() {
+        return listenerRegistry.getListenerContainers().stream()
+                .filter(c -> c.getListenerId() != null && c.getListenerId().startsWith(LISTENER_ID))
+                .toList();
+    }
+
+    @DltHandler
+    public void onDeadLetter(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        logger.error("Design job moved to {} after retries: {}", record.topic(), record.value());
+        designMetrics.deadLettered();
+        try {
+            Long requestId = requestId(objectMapper.readValue(record.value(), MESSAGE));
+            if (requestId != null) {
+                designJobService.markFailed(requestId, "Design generation failed after retries");
+            }
         } catch (Exception e) {
-            // Handle DLQ or logging
-            logger.error("Failed to process design job: {}", e.getMessage(), e);
-            kafkaTemplate.send("design-jobs-dlq", payload);
+            logger.error("Failed to mark dead-lettered design job as failed: {}", e.getMessage(), e);
         }
+        ack.acknowledge();
+    }
+
+    private Long requestId(Map<String, Object> data) {
+        return data.get("requestId") != null ? ((Number) data.get("requestId")).longValue() : null;
     }
-}
\ No newline at end of file
+}
@@ -14,15 +14,15 @@ public class DesignJobProducer {
     private static final Logger logger = LoggerFactory.getLogger(DesignJobProducer.class);
     private final KafkaTemplate<String, String> kafkaTemplate;
 
-    public void send(String payload) {
-        CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send("design-jobs", payload);
-        future.whenComplete((result, ex) -> {
+    // Failures are left to the caller (OutboxRelay keeps the row and retries it)
+    public CompletableFuture<SendResult<String, String>> send(String topic, String key, String payload) {
+        return kafkaTemplate.send(topic, key, payload).whenComplete((result, ex) -> {
             if (ex != null) {
-                logger.error("Failed to send message to design-jobs: {}", ex.getMessage(), ex);
-                kafkaTemplate.send("design-jobs-dlq", payload); // NEW: Send to DLQ
+                logger.warn("Failed to send message to {}: {}", topic, ex.getMessage());
             } else {
-                logger.info("Sent message to design-jobs: {}", payload);
+                logger.debug("Sent message to {}-{}@{}", topic, result.getRecordMetadata().partition(),
+                        result.getRecordMetadata().offset());
             }
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.aiassistant.backend.kafka;
+
+import com.aiassistant.backend.model.OutboxEvent;
+import com.aiassistant.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes unsent outbox rows to Kafka in id order and marks them sent once the broker has acked.
+ * Safe on every instance: each run holds an advisory lock for its transaction and marks rows sent in it,
+ * so only one relay reads the table at a time and per-key order holds. The others skip their turn.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final long RELAY_LOCK_ID = 0x6f7574626f78L; // "outbox"
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final DesignJobProducer producer;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final Duration retention;
+    private final Counter published;
+    private final Counter failed;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            DesignJobProducer producer,
+            @Value("${app.outbox.batchSize:100}") int batchSize,
+            @Value("${app.outbox.sendTimeoutMs:10000}") long sendTimeoutMs,
+            @Value("${app.outbox.retentionHours:24}") long retentionHours,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.producer = producer;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retention = Duration.ofHours(retentionHours);
+        this.published = meterRegistry.counter("outbox.relay.events", "outcome", "published");
+        this.failed = meterRegistry.counter("outbox.relay.events", "outcome", "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.pollMs:500}")
+    public void relay() {
+        transaction.executeWithoutResult(status -> {
+            if (outboxEventRepository.tryLockRelay(RELAY_LOCK_ID)) {
+                relayBatch();
+            }
+        });
+    }
+
+    // Sends and marks in the caller's transaction; a crash before commit leaves the rows unsent, to be sent again
+    private void relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findUnsent(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Group by key keeping id order
+        Map<String, Iterator<OutboxEvent>> byKey = new LinkedHashMap<>();
+        Map<String, List<OutboxEvent>> grouped = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            grouped.computeIfAbsent(String.valueOf(event.getMessageKey()), k -> new ArrayList<>()).add(event);
+        }
+        grouped.forEach((key, events) -> byKey.put(key, events.iterator()));
+
+        // Each round sends the next event of every key at once (keys are independent, so the producer can batch
+        // them) and waits for the acks. A key stops at its first failure: nothing after it reaches the broker
+        // until it is acked, so retrying it on the next run cannot reorder it behind its successors
+        List<Long> sent = new ArrayList<>();
+        while (!byKey.isEmpty()) {
+            Map<String, OutboxEvent> round = new LinkedHashMap<>();
+            Map<String, CompletableFuture<SendResult<String, String>>> sends = new LinkedHashMap<>();
+            byKey.forEach((key, events) -> {
+                OutboxEvent event = events.next();
+                round.put(key, event);
+                sends.put(key, producer.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+            });
+            for (Map.Entry<String, OutboxEvent> entry : round.entrySet()) {
+                String key = entry.getKey();
+                if (acked(sends.get(key))) {
+                    sent.add(entry.getValue().getId());
+                    if (!byKey.get(key).hasNext()) {
+                        byKey.remove(key);
+                    }
+                } else {
+                    byKey.remove(key);
+                }
+            }
+        }
+        if (!sent.isEmpty()) {
+            outboxEventRepository.markSent(sent, Instant.now());
+        }
+        published.increment(sent.size());
+        failed.increment(batch.size() - sent.size());
+        logger.debug("Outbox relay published {}/{} events", sent.size(), batch.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanupMs:3600000}")
+    public void purgeSent() {
+        int deleted = outboxEventRepository.deleteSentBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Purged {} sent outbox events", deleted);
+        }
+    }
+
+    private boolean acked(CompletableFuture<SendResult<String, String>> send) {
+        try {
+            send.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
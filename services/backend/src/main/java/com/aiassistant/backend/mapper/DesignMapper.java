@@ -2,15 +2,22 @@ package com.aiassistant.backend.mapper;
 
 import com.aiassistant.backend.dto.design.DesignResponseDTO;
 import com.aiassistant.backend.model.Design;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.util.Map;
 
 @Component
 public class DesignMapper {
 
+    private static final Logger logger = LoggerFactory.getLogger(DesignMapper.class);
+
     private final ObjectMapper objectMapper;
 
     public DesignMapper(ObjectMapper objectMapper) {
@@ -18,18 +25,61 @@ public class DesignMapper {
     }
 
     public DesignResponseDTO toDTO(Design d) {
-        Map<String, Object> rawOutput;
-        try {
-            rawOutput = objectMapper.readValue(d.getRawOutput(), Map.class);
-        } catch (JsonProcessingException e) {
-            rawOutput = Map.of("error", "Failed to parse rawOutput: " + e.getMessage());
-        }
-
         return DesignResponseDTO.builder()
                 .id(d.getId())
                 .prompt(d.getPrompt())
-                .rawOutput(rawOutput)
+                .rawOutput(passthroughRawOutput(d))
                 .mermaidCode(d.getMermaidCode())
+                .createdAt(d.getCreatedAt())
+                .revision(d.getRevision() != null ? d.getRevision() : 1)
                 .build();
     }
-}
\ No newline at end of file
+
+    // Rows validated at write time are passed through untouched. Older rows are flagged once by
+    // RawOutputValidationBackfill; until then they get a token scan (no tree) on each read
+    private String passthroughRawOutput(Design d) {
+        if (Boolean.TRUE.equals(d.getRawOutputValid())) {
+            return d.getRawOutput();
+        }
+        if (Boolean.FALSE.equals(d.getRawOutputValid())) {
+            return errorJson("Failed to parse rawOutput");
+        }
+        try {
+            checkSingleJsonValue(d.getRawOutput());
+            return d.getRawOutput();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to parse rawOutput for design {}: {}", d.getId(), d.getRawOutput(), e);
+            return errorJson("Failed to parse rawOutput: " + e.getMessage());
+        }
+    }
+
+    // rawOutput goes out through @JsonRawValue, so it must be exactly one JSON value: "{} {}" is rejected
+    public boolean isSingleJsonValue(String json) {
+        try {
+            checkSingleJsonValue(json);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void checkSingleJsonValue(String json) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() == null) {
+                throw new JsonParseException(parser, "No JSON value");
+            }
+            parser.skipChildren();
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Trailing content after the JSON value");
+            }
+        }
+    }
+
+    private String errorJson(String message) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("error", message));
+        } catch (JsonProcessingException e) {
+            return "{\"error\":\"Failed to parse rawOutput\"}";
+        }
+    }
+}
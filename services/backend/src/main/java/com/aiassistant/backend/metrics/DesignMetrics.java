@@ -0,0 +1,88 @@
+package com.aiassistant.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the design pipeline. Every meter is tagged with a normalized complexity so the
+ * tag stays low-cardinality whatever clients send; histograms and SLO buckets are set in application.yml.
+ */
+@Component
+@RequiredArgsConstructor
+public class DesignMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    private static final Set<String> COMPLEXITIES = Set.of("basic", "intermediate", "advanced");
+
+    private final MeterRegistry registry;
+
+    // design.stage{stage=ai_call|validation|mermaid|persist|queue}
+    public <T> T timeStage(String stage, String complexity, Supplier<T> work) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = ERROR;
+        try {
+            T result = work.get();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            sample.stop(timer("design.stage", complexity, outcome, "stage", stage));
+        }
+    }
+
+    public void timeStage(String stage, String complexity, Runnable work) {
+        timeStage(stage, complexity, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // End to end: design.create for the API path, design.jobs for queued jobs run by the consumer
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, String name, String complexity, String outcome) {
+        sample.stop(timer(name, complexity, outcome));
+    }
+
+    public void fallback(String complexity) {
+        counter("design.ai.fallback", complexity).increment();
+    }
+
+    public void validationFailure(String complexity) {
+        counter("design.validation.failures", complexity).increment();
+    }
+
+    public void deadLettered() {
+        registry.counter("design.jobs.dead_lettered").increment();
+    }
+
+    private Timer timer(String name, String complexity, String outcome, String... extraTags) {
+        return Timer.builder(name)
+                .tag("complexity", complexityTag(complexity))
+                .tag("outcome", outcome)
+                .tags(extraTags)
+                .register(registry);
+    }
+
+    private Counter counter(String name, String complexity) {
+        return registry.counter(name, "complexity", complexityTag(complexity));
+    }
+
+    private static String complexityTag(String complexity) {
+        if (complexity == null || complexity.isBlank()) {
+            return "none";
+        }
+        String normalized = complexity.trim().toLowerCase(Locale.ROOT);
+        return COMPLEXITIES.contains(normalized) ? normalized : "other";
+    }
+}
@@ -0,0 +1,22 @@
+package com.aiassistant.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "ai_response_cache")
+@Getter @Setter
+public class AIResponseCacheEntry {
+    @Id
+    @Column(length = 64)
+    private String cacheKey; // SHA-256 of the normalized request
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String responseJson; // plain text; rows written while this was an @Lob hold a large-object OID instead
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
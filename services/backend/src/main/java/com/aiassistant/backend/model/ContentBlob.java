@@ -0,0 +1,35 @@
+package com.aiassistant.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+// Content-addressed, compressed text shared by every design whose output is byte-identical.
+// Rows are written and reference-counted only through ContentBlobRepository's native statements
+@Entity
+@Table(name = "content_blobs")
+@Immutable
+@BatchSize(size = 100) // a page of designs loads its blobs in one query
+@Getter @Setter
+public class ContentBlob {
+    @Id
+    @Column(length = 64)
+    private String hash; // SHA-256 of the UTF-8 text
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(columnDefinition = "bytea", nullable = false)
+    private String content;
+
+    @Column(nullable = false)
+    private Integer size; // uncompressed length in characters
+
+    @Column(name = "ref_count", nullable = false)
+    private Long refCount;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+}
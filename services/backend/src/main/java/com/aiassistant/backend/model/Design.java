@@ -7,19 +7,43 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "designs")
+@Table(name = "designs", indexes = {
+        @Index(name = "idx_designs_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_designs_raw_output_hash", columnList = "raw_output_hash"), // FK checks on blob delete
+        @Index(name = "idx_designs_mermaid_hash", columnList = "mermaid_hash")
+})
 @Getter @Setter
 public class Design {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence rather than IDENTITY: ids are known before the INSERT, so bulk saves go out as JDBC batches.
+    // db/designs-seq-postgres.sql moves the sequence past ids handed out by the old identity column
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "designs_seq")
+    @SequenceGenerator(name = "designs_seq", sequenceName = "designs_seq", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "text")
     private String prompt;
 
+    // Text of rows written before content_blobs; moved out (and cleared) by ContentBlobMigration
     @Lob
+    @Column(name = "raw_output", columnDefinition = "text")
+    private String legacyRawOutput;
+
+    // Output text lives in content_blobs, shared with identical outputs; see ContentBlobService
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "raw_output_hash")
+    private ContentBlob rawOutputBlob;
+
+    // Notes, service names and responsibilities, flattened at write time; indexed with the prompt
+    // by the generated search_vector column (see db/search-postgres.sql)
     @Column(columnDefinition = "text")
-    private String rawOutput;
+    private String searchText;
+
+    private Integer revision; // newest revision held by this row; null until first regenerated (see DesignRevision)
+
+    private Boolean rawOutputValid; // true once validated at write time or by RawOutputValidationBackfill, false if it does not parse
 
+    @Column(name = "created_at")
     private Instant createdAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,7 +51,19 @@ public class Design {
     private User user;
 
     @Lob
-    @Column(columnDefinition = "text")
-    private String mermaidCode;
+    @Column(name = "mermaid_code", columnDefinition = "text")
+    private String legacyMermaidCode;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mermaid_hash")
+    private ContentBlob mermaidBlob;
+
+    public String getRawOutput() {
+        return rawOutputBlob != null ? rawOutputBlob.getContent() : legacyRawOutput;
+    }
+
+    public String getMermaidCode() {
+        return mermaidBlob != null ? mermaidBlob.getContent() : legacyMermaidCode;
+    }
 }
 
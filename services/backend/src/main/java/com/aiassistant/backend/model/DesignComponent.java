@@ -0,0 +1,57 @@
+package com.aiassistant.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Locale;
+
+// One searchable element of a design's AI output (service, database type, tech, event or API), extracted at write time
+@Entity
+@Table(name = "design_components", indexes = {
+        @Index(name = "idx_components_user_kind_value", columnList = "user_id, kind, component_value, design_id"),
+        @Index(name = "idx_components_user_kind_service", columnList = "user_id, kind, service"),
+        @Index(name = "idx_components_design", columnList = "design_id, kind, component_value")
+})
+@Getter @Setter
+public class DesignComponent {
+    public static final String SERVICE = "SERVICE";
+    public static final String DATABASE_TYPE = "DATABASE_TYPE";
+    public static final String TECH = "TECH";
+    public static final String EVENT = "EVENT";
+    public static final String API = "API";
+
+    private static final int MAX_VALUE_LENGTH = 255;
+
+    // Pooled sequence: a large design writes hundreds of rows, one id round trip per 50
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "design_components_seq")
+    @SequenceGenerator(name = "design_components_seq", sequenceName = "design_components_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "design_id", nullable = false)
+    private Design design;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // copied from the design so per-user lookups stay on one index
+
+    @Column(nullable = false, length = 20)
+    private String kind;
+
+    @Column(name = "component_value", nullable = false)
+    private String value; // normalized: service/database type/tech/event name, or the HTTP method for APIs
+
+    private String service; // normalized owning service, for TECH, EVENT and API rows
+
+    @Column(length = 1000)
+    private String label; // as written by the AI: service or database name, API path
+
+    public static String normalize(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        String normalized = raw.trim().toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_VALUE_LENGTH ? normalized.substring(0, MAX_VALUE_LENGTH) : normalized;
+    }
+}
@@ -7,9 +7,16 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "design_requests")
+@Table(name = "design_requests", indexes = {
+        @Index(name = "idx_design_requests_status_lease", columnList = "status, lease_until") // lease recovery scan
+})
 @Getter @Setter
 public class DesignRequest {
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -19,5 +26,29 @@ public class DesignRequest {
     private String status; // QUEUED/RUNNING/COMPLETED/FAILED
 
     private Instant createdAt;
+    private Instant startedAt; // set by each claim
     private Instant completedAt;
+
+    // The node holding an unfinished job, queued or running, and until when; it renews the lease while it holds
+    // the job, so a lapsed lease means that node stopped and any node may take the job over
+    @Column(length = 100)
+    private String leaseOwner;
+    private Instant leaseUntil;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(columnDefinition = "text")
+    private String requestJson; // CreateDesignRequestDTO as queued
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "design_id")
+    private Design design; // set once COMPLETED
+
+    @Column(columnDefinition = "text")
+    private String errorMessage;
+
+    @Version
+    private Long version; // optimistic lock: concurrent redeliveries must not overwrite a newer state
 }
@@ -0,0 +1,37 @@
+package com.aiassistant.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// One revision in a design's lineage. Snapshots hold the whole revision document; other rows hold
+// a JSON Patch (RFC 6902) from the parent, so storage grows with what changed
+@Entity
+@Table(name = "design_revisions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_revisions_design_revision", columnNames = {"design_id", "revision"})
+})
+@Getter @Setter
+public class DesignRevision {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "design_id", nullable = false)
+    private Design design;
+
+    @Column(nullable = false)
+    private Integer revision; // 1-based; the design row always holds the newest one
+
+    private Integer parentRevision; // null for revision 1
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String content; // full document when snapshot, otherwise the patch from parentRevision
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+}
@@ -0,0 +1,32 @@
+package com.aiassistant.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Message written in the same transaction as the state it announces; OutboxRelay publishes it to Kafka
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_unsent", columnList = "sent_at, id")
+})
+@Getter @Setter
+public class OutboxEvent {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey; // Kafka key; events with the same key are published in id order
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
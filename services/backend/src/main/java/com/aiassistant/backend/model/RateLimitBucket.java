@@ -0,0 +1,24 @@
+package com.aiassistant.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Shared token bucket for JdbcRateLimitStore, in the same GCRA form as util.TokenBucket.
+// Rows are written only through RateLimitBucketRepository's native upsert
+@Entity
+@Table(name = "rate_limit_buckets")
+@Getter @Setter
+public class RateLimitBucket {
+    @Id
+    @Column(name = "bucket_key", length = 100)
+    private String key;
+
+    @Column(name = "arrival_us", nullable = false)
+    private Long arrivalMicros; // theoretical arrival time, database clock, epoch microseconds
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
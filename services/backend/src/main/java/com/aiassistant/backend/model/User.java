@@ -8,6 +8,9 @@ import lombok.Setter;
 @Table(name = "users")
 @Getter @Setter
 public class User {
+    public static final String PLAN_FREE = "free";
+    public static final String PLAN_PRO = "pro";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -18,4 +21,7 @@ public class User {
 
     @Column(nullable = false)
     private String passwordHash;
+
+    @Column(length = 20)
+    private String plan; // sets GenerationQuota limits; null means PLAN_FREE. Takes effect with the next token
 }
@@ -0,0 +1,26 @@
+package com.aiassistant.backend.repository;
+
+import com.aiassistant.backend.model.AIResponseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface AIResponseCacheRepository extends JpaRepository<AIResponseCacheEntry, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from AIResponseCacheEntry e where e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+
+    // Rows written while responseJson was an @Lob hold the OID of a large object (cached values are JSON objects,
+    // never bare digits); they are deleted and only OIDs that exist as large objects are unlinked
+    @Transactional
+    @Query(value = "with gone as (delete from ai_response_cache where response_json ~ '^[0-9]+$' returning response_json) " +
+            "select count(lo_unlink(m.oid)) from gone join pg_largeobject_metadata m on m.oid = cast(gone.response_json as oid)",
+            nativeQuery = true)
+    long deleteLargeObjectRows();
+}
@@ -0,0 +1,32 @@
+package com.aiassistant.backend.repository;
+
+import com.aiassistant.backend.model.ContentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+
+    // Reference counts change in single statements, so concurrent writers never lose an update
+
+    @Modifying
+    @Query(value = "update content_blobs set ref_count = ref_count + :n where hash = :hash", nativeQuery = true)
+    int addReferences(@Param("hash") String hash, @Param("n") int n);
+
+    // Two writers inserting the same new content both end up referencing one row
+    @Modifying
+    @Query(value = "insert into content_blobs (hash, content, size, ref_count, created_at) " +
+            "values (:hash, :content, :size, :n, now()) " +
+            "on conflict (hash) do update set ref_count = content_blobs.ref_count + :n", nativeQuery = true)
+    int insertOrReference(@Param("hash") String hash, @Param("content") byte[] content, @Param("size") int size,
+                          @Param("n") int n);
+
+    @Modifying
+    @Query(value = "update content_blobs set ref_count = ref_count - :n where hash = :hash", nativeQuery = true)
+    int removeReferences(@Param("hash") String hash, @Param("n") int n);
+
+    @Modifying
+    @Query(value = "delete from content_blobs where hash = :hash and ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
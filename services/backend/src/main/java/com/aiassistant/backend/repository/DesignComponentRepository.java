@@ -0,0 +1,24 @@
+package com.aiassistant.backend.repository;
+
+import com.aiassistant.backend.dto.design.DesignApiDTO;
+import com.aiassistant.backend.model.DesignComponent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface DesignComponentRepository extends JpaRepository<DesignComponent, Long> {
+
+    // Served by idx_components_user_kind_service
+    @Query("select new com.aiassistant.backend.dto.design.DesignApiDTO(c.design.id, c.service, c.value, c.label) " +
+            "from DesignComponent c where c.userId = :userId and c.kind = 'API' and c.service = :service " +
+            "order by c.design.id desc, c.id")
+    List<DesignApiDTO> findApis(@Param("userId") Long userId, @Param("service") String service, Pageable limit);
+
+    @Modifying
+    @Query("delete from DesignComponent c where c.design.id = :designId")
+    int deleteByDesignId(@Param("designId") Long designId);
+}
@@ -1,12 +1,150 @@
 // DesignRepository.java
 package com.aiassistant.backend.repository;
 
+import com.aiassistant.backend.dto.design.DesignSummaryDTO;
 import com.aiassistant.backend.model.Design;
 import com.aiassistant.backend.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface DesignRepository extends JpaRepository<Design, Long> {
+    int EXPORT_FETCH_SIZE = 100;
+
     List<Design> findByUser(User user);
+
+    Optional<Design> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select d.prompt from Design d where d.id = :id and d.user.id = :userId")
+    Optional<String> findPrompt(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Revalidation reads: one indexed row or aggregate, no text columns
+
+    @Query("select coalesce(d.revision, 1) from Design d where d.id = :id and d.user.id = :userId")
+    Optional<Integer> findHeadRevision(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Changes whenever a design is created or regenerated (designs are never deleted)
+    @Query("select concat(count(d), '.', coalesce(max(d.id), 0), '.', coalesce(sum(coalesce(d.revision, 1)), 0)) " +
+            "from Design d where d.user.id = :userId")
+    String findListVersion(@Param("userId") Long userId);
+
+    // Serializes concurrent regenerations of one design, so revision numbers stay contiguous
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Design d where d.id = :id and d.user.id = :userId")
+    Optional<Design> findForUpdate(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Keyset pagination over idx_designs_user_created, newest first; Pageable only carries the limit
+
+    @Query("select new com.aiassistant.backend.dto.design.DesignSummaryDTO(d.id, d.prompt, d.createdAt) from Design d " +
+            "where d.user.id = :userId order by d.createdAt desc, d.id desc")
+    List<DesignSummaryDTO> findSummaries(@Param("userId") Long userId, Pageable limit);
+
+    @Query("select new com.aiassistant.backend.dto.design.DesignSummaryDTO(d.id, d.prompt, d.createdAt) from Design d " +
+            "where d.user.id = :userId and (d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id < :id)) " +
+            "order by d.createdAt desc, d.id desc")
+    List<DesignSummaryDTO> findSummariesBefore(@Param("userId") Long userId, @Param("createdAt") Instant createdAt,
+                                               @Param("id") Long id, Pageable limit);
+
+    // Component filters: each non-null filter must match a design_components row (probed via idx_components_design)
+    String COMPONENT_FILTERS =
+            " and (:service is null or exists (select 1 from DesignComponent c where c.design = d and c.kind = 'SERVICE' and c.value = :service))" +
+            " and (:databaseType is null or exists (select 1 from DesignComponent c where c.design = d and c.kind = 'DATABASE_TYPE' and c.value = :databaseType))" +
+            " and (:tech is null or exists (select 1 from DesignComponent c where c.design = d and c.kind = 'TECH' and c.value = :tech))" +
+            " and (:method is null or exists (select 1 from DesignComponent c where c.design = d and c.kind = 'API' and c.value = :method))";
+
+    @Query("select new com.aiassistant.backend.dto.design.DesignSummaryDTO(d.id, d.prompt, d.createdAt) from Design d " +
+            "where d.user.id = :userId" + COMPONENT_FILTERS + " order by d.createdAt desc, d.id desc")
+    List<DesignSummaryDTO> findSummariesByComponents(@Param("userId") Long userId, @Param("service") String service,
+                                                     @Param("databaseType") String databaseType, @Param("tech") String tech,
+                                                     @Param("method") String method, Pageable limit);
+
+    @Query("select new com.aiassistant.backend.dto.design.DesignSummaryDTO(d.id, d.prompt, d.createdAt) from Design d " +
+            "where d.user.id = :userId and (d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id < :id))" +
+            COMPONENT_FILTERS + " order by d.createdAt desc, d.id desc")
+    List<DesignSummaryDTO> findSummariesByComponentsBefore(@Param("userId") Long userId, @Param("service") String service,
+                                                           @Param("databaseType") String databaseType, @Param("tech") String tech,
+                                                           @Param("method") String method, @Param("createdAt") Instant createdAt,
+                                                           @Param("id") Long id, Pageable limit);
+
+    // Full-text search over search_vector (GIN idx_designs_search), best match first.
+    // Rows are (id, prompt, created_at, rank); the keyset is (rank, id).
+
+    String SEARCH_RANKED =
+            "select d.id, d.prompt, d.created_at, ts_rank_cd(d.search_vector, q.query) as rank " +
+            "from designs d, websearch_to_tsquery('english', :query) as q(query) " +
+            "where d.user_id = :userId and d.search_vector @@ q.query";
+
+    @Query(value = "select * from (" + SEARCH_RANKED + ") ranked order by rank desc, id desc limit :limit",
+            nativeQuery = true)
+    List<Object[]> search(@Param("userId") Long userId, @Param("query") String query, @Param("limit") int limit);
+
+    @Query(value = "select * from (" + SEARCH_RANKED + ") ranked " +
+            "where rank < :rank or (rank = :rank and id < :id) order by rank desc, id desc limit :limit",
+            nativeQuery = true)
+    List<Object[]> searchAfter(@Param("userId") Long userId, @Param("query") String query, @Param("rank") float rank,
+                               @Param("id") Long id, @Param("limit") int limit);
+
+    // Rows written before design_components/search_text existed, in id order for DesignIndexBackfill
+    @Query("select d.id from Design d where d.id > :afterId " +
+            "and (d.searchText is null or not exists (select 1 from DesignComponent c where c.design = d)) order by d.id")
+    List<Long> findIdsToIndex(@Param("afterId") Long afterId, Pageable limit);
+
+    @Query("select d from Design d where d.user.id = :userId order by d.createdAt desc, d.id desc")
+    List<Design> findPage(@Param("userId") Long userId, Pageable limit);
+
+    @Query("select d from Design d " +
+            "where d.user.id = :userId and (d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id < :id)) " +
+            "order by d.createdAt desc, d.id desc")
+    List<Design> findPageBefore(@Param("userId") Long userId, @Param("createdAt") Instant createdAt,
+                                @Param("id") Long id, Pageable limit);
+
+    // Every design of a user in id order, for DesignExportService. Read through a cursor EXPORT_FETCH_SIZE rows
+    // at a time (needs the caller's transaction), with both blobs in the same row so no design costs a second query
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from Design d left join fetch d.rawOutputBlob left join fetch d.mermaidBlob " +
+            "where d.user.id = :userId order by d.id")
+    Stream<Design> streamForExport(@Param("userId") Long userId);
+
+    // Rows written before rawOutputValid existed, for RawOutputValidationBackfill
+    @Query("select d.id from Design d where d.id > :afterId and d.rawOutputValid is null order by d.id")
+    List<Long> findIdsWithUncheckedRawOutput(@Param("afterId") Long afterId, Pageable limit);
+
+    // A bulk update, so the row's other columns (inline @Lob text included) are not rewritten
+    @Modifying
+    @Query("update Design d set d.rawOutputValid = :valid where d.id = :id")
+    int setRawOutputValid(@Param("id") Long id, @Param("valid") boolean valid);
+
+    // Rows still holding their text inline, for ContentBlobMigration
+    @Query("select d.id from Design d where d.id > :afterId " +
+            "and (d.legacyRawOutput is not null or d.legacyMermaidCode is not null) order by d.id")
+    List<Long> findIdsWithInlineContent(@Param("afterId") Long afterId, Pageable limit);
+
+    // Locks a row that still holds inline content; SKIP LOCKED (timeout -2) lets another node's migration have it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select d from Design d where d.id = :id " +
+            "and (d.legacyRawOutput is not null or d.legacyMermaidCode is not null)")
+    Optional<Design> lockWithInlineContent(@Param("id") Long id);
+
+    // Hibernate wrote the inline @Lob columns as PostgreSQL large objects and stored their OIDs in the rows;
+    // once the text is in content_blobs the objects are unlinked, or their space would never be reclaimed
+    @Query(value = "select lo_unlink(cast(raw_output as oid)) from designs where id = :id and raw_output ~ '^[0-9]+$' " +
+            "union all select lo_unlink(cast(mermaid_code as oid)) from designs where id = :id and mermaid_code ~ '^[0-9]+$'",
+            nativeQuery = true)
+    List<Integer> unlinkInlineLargeObjects(@Param("id") Long id);
 }
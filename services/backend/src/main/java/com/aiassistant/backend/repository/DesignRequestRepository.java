@@ -0,0 +1,52 @@
+package com.aiassistant.backend.repository;
+
+import com.aiassistant.backend.model.DesignRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface DesignRequestRepository extends JpaRepository<DesignRequest, Long> {
+    Optional<DesignRequest> findByIdAndUserId(Long id, Long userId);
+
+    // Takes a queued or running job's lease if nobody holds it: never leased, or its holder stopped renewing it.
+    // 0 rows means another node holds the job or it finished
+    @Modifying
+    @Query("update DesignRequest r set r.leaseOwner = :owner, r.leaseUntil = :until, r.version = coalesce(r.version, 0) + 1 " +
+            "where r.id = :id and r.status in ('QUEUED', 'RUNNING') and (r.leaseUntil is null or r.leaseUntil < :now)")
+    int lease(@Param("id") Long id, @Param("owner") String owner, @Param("until") Instant until, @Param("now") Instant now);
+
+    // Takes up to :limit jobs whose leases lapsed, plus queued rows nobody leased since :unleasedBefore (their
+    // Kafka message was lost). SKIP LOCKED, so nodes recovering at the same time split the rows between them
+    @Query(value = "with expired as (select id from design_requests where status in ('QUEUED', 'RUNNING') " +
+            "and (lease_until < :now or (lease_until is null and created_at < :unleasedBefore)) " +
+            "order by id limit :limit for update skip locked), " +
+            "leased as (update design_requests r set lease_owner = :owner, lease_until = :until, " +
+            "version = coalesce(r.version, 0) + 1 from expired where r.id = expired.id returning r.id) " +
+            "select id from leased order by id",
+            nativeQuery = true)
+    List<Long> leaseExpired(@Param("owner") String owner, @Param("until") Instant until, @Param("now") Instant now,
+                            @Param("unleasedBefore") Instant unleasedBefore, @Param("limit") int limit);
+
+    // Heartbeat for the jobs a node still holds; no version bump, so it never fails a concurrent status change
+    @Modifying
+    @Query("update DesignRequest r set r.leaseUntil = :until " +
+            "where r.id in :ids and r.leaseOwner = :owner and r.status in ('QUEUED', 'RUNNING')")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("until") Instant until);
+
+    // Moves a job to RUNNING for one run; only its lease holder may, and 0 rows means the lease was lost or it finished
+    @Modifying
+    @Query("update DesignRequest r set r.status = 'RUNNING', r.startedAt = :now, r.version = coalesce(r.version, 0) + 1 " +
+            "where r.id = :id and r.leaseOwner = :owner and r.status in ('QUEUED', 'RUNNING')")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update DesignRequest r set r.status = 'QUEUED', r.version = coalesce(r.version, 0) + 1 " +
+            "where r.id = :id and r.status = 'RUNNING'")
+    int requeue(@Param("id") Long id);
+}
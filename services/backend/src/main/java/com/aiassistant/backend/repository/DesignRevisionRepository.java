@@ -0,0 +1,24 @@
+package com.aiassistant.backend.repository;
+
+import com.aiassistant.backend.dto.design.DesignRevisionDTO;
+import com.aiassistant.backend.model.DesignRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface DesignRevisionRepository extends JpaRepository<DesignRevision, Long> {
+
+    // Nearest snapshot at or below a revision; reconstruction replays at most snapshotEvery - 1 patches from it
+    Optional<DesignRevision> findTopByDesignIdAndSnapshotTrueAndRevisionLessThanEqualOrderByRevisionDesc(Long designId,
+                                                                                                      Integer revision);
+
+    List<DesignRevision> findByDesignIdAndRevisionBetweenOrderByRevisionAsc(Long designId, Integer from, Integer to);
+
+    // Lineage without the content column
+    @Query("select new com.aiassistant.backend.dto.design.DesignRevisionDTO(r.revision, r.parentRevision, r.snapshot, " +
+            "length(r.content), r.createdAt) from DesignRevision r where r.design.id = :designId order by r.revision desc")
+    List<DesignRevisionDTO> findLineage(@Param("designId") Long designId);
+}
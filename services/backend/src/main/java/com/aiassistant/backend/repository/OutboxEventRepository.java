@@ -0,0 +1,34 @@
+package com.aiassistant.backend.repository;
+
+import com.aiassistant.backend.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Transaction-scoped advisory lock: one relay at a time reads and marks rows, whichever node it runs on.
+    // Released at commit or rollback, so a relay that dies mid-run frees it with its connection
+    @Query(value = "select pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryLockRelay(@Param("lockId") long lockId);
+
+    @Query("select e from OutboxEvent e where e.sentAt is null order by e.id")
+    List<OutboxEvent> findUnsent(Pageable limit);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,43 @@
+package com.aiassistant.backend.repository;
+
+import com.aiassistant.backend.model.RateLimitBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    // Take `cost` microseconds of the bucket in one statement, on the database clock so nodes never disagree.
+    // Returns 0 if taken, otherwise the microseconds to wait. The conflict row lock serializes takers of one key;
+    // inside DO UPDATE only excluded.* is visible, and excluded.arrival_us - :cost is the statement's now.
+    @Transactional
+    @Query(value = "with t as (select cast(extract(epoch from clock_timestamp()) * 1000000 as bigint) as now_us), " +
+            "taken as (insert into rate_limit_buckets as b (bucket_key, arrival_us, updated_at) " +
+            "  select :key, t.now_us + :cost, now() from t " +
+            "  on conflict (bucket_key) do update " +
+            "    set arrival_us = greatest(b.arrival_us, excluded.arrival_us - :cost) + :cost, updated_at = now() " +
+            "    where greatest(b.arrival_us, excluded.arrival_us - :cost) + :cost - (excluded.arrival_us - :cost) <= :tolerance " +
+            "  returning 0 as wait_us) " +
+            "select coalesce((select wait_us from taken), " +
+            "  (select greatest(b.arrival_us, t.now_us) + :cost - t.now_us - :tolerance " +
+            "   from rate_limit_buckets b, t where b.bucket_key = :key), :cost)", // row committed after our snapshot: wait one cost
+            nativeQuery = true)
+    long tryTake(@Param("key") String key, @Param("cost") long costMicros, @Param("tolerance") long toleranceMicros);
+
+    // A purged row is a full bucket, so there is nothing to give back to
+    @Transactional
+    @Modifying
+    @Query(value = "update rate_limit_buckets set arrival_us = arrival_us - :cost, updated_at = now() " +
+            "where bucket_key = :key", nativeQuery = true)
+    int refund(@Param("key") String key, @Param("cost") long costMicros);
+
+    // A bucket whose theoretical arrival time has passed is full, the same as no row at all.
+    // A take racing with the delete locks the row first, and the delete then re-checks it
+    @Transactional
+    @Modifying
+    @Query(value = "delete from rate_limit_buckets " +
+            "where arrival_us < cast(extract(epoch from clock_timestamp()) * 1000000 as bigint)", nativeQuery = true)
+    int deleteFull();
+}
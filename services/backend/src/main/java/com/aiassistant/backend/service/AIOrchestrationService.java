@@ -1,27 +1,42 @@
 package com.aiassistant.backend.service;
 
+import com.aiassistant.backend.config.KafkaConfig;
 import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
-import com.aiassistant.backend.kafka.DesignJobProducer;
+import com.aiassistant.backend.model.DesignRequest;
+import com.aiassistant.backend.model.OutboxEvent;
 import com.aiassistant.backend.model.User;
+import com.aiassistant.backend.repository.OutboxEventRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class AIOrchestrationService {
 
-    private final DesignJobProducer producer;
+    private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
+    private final DesignJobService designJobService;
 
-    public void queueJob(CreateDesignRequestDTO req, User user) {
+    // The job row and its outbox message commit together; OutboxRelay publishes to Kafka afterwards,
+    // so the request thread never waits on the broker and a broker outage cannot lose a queued job
+    @Transactional
+    public DesignRequest queueJob(CreateDesignRequestDTO req, User user) {
+        DesignRequest job = designJobService.create(req, user);
         try {
             // Serialize to JSON payload
-            Map<String, Object> payload = Map.of("req", req, "userId", user.getId());
-            String payloadString = objectMapper.writeValueAsString(payload);
-            producer.send(payloadString);
+            Map<String, Object> payload = Map.of("req", req, "userId", user.getId(), "requestId", job.getId());
+            OutboxEvent event = new OutboxEvent();
+            event.setTopic(KafkaConfig.DESIGN_JOBS_TOPIC);
+            event.setMessageKey(String.valueOf(user.getId())); // per-user ordering and partitioning
+            event.setPayload(objectMapper.writeValueAsString(payload));
+            event.setCreatedAt(Instant.now());
+            outboxEventRepository.save(event);
+            return job;
         } catch (Exception e) {
             throw new RuntimeException("Failed to queue design job: " + e.getMessage(), e);
         }
@@ -0,0 +1,151 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.model.AIResponseCacheEntry;
+import com.aiassistant.backend.repository.AIResponseCacheRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier cache of validated AI responses keyed by {@link com.aiassistant.backend.util.DesignKeyGenerator}.
+ * The in-process tier is bounded by size and TTL; the persistent tier keeps warm entries across restarts
+ * and is purged of entries past the same TTL.
+ */
+@Service
+public class AIResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIResponseCache.class);
+
+    private final AIResponseCacheRepository repository;
+    private final Cache<String, String> local;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final TransactionTemplate ownTransaction;
+
+    private final LongAdder persistentHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AIResponseCache(
+            AIResponseCacheRepository repository,
+            @Value("${app.ai.cache.maxSize:10000}") long maxSize,
+            @Value("${app.ai.cache.ttlMinutes:1440}") long ttlMinutes,
+            @Value("${app.ai.cache.persistent:true}") boolean persistent,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        // Writes never join the caller's transaction: a failed insert must not roll back the design
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.persistent = persistent;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache.gets{cache=ai-responses,result=hit|miss} etc. cover the memory tier
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "ai-responses");
+        FunctionCounter.builder("ai.response.cache.persistent.hits", persistentHits, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.response.cache.misses", misses, LongAdder::sum)
+                .description("Lookups that missed both tiers")
+                .register(meterRegistry);
+    }
+
+    public Optional<String> get(String key) {
+        String cached = local.getIfPresent(key);
+        if (cached != null) {
+            logger.debug("AI response cache hit (memory) for key {}", key);
+            return Optional.of(cached);
+        }
+        if (persistent) {
+            Optional<String> stored = repository.findById(key)
+                    .filter(e -> e.getCreatedAt().isAfter(Instant.now().minus(ttl)))
+                    .filter(e -> e.getResponseJson().startsWith("{")) // not an OID row awaiting purgeLargeObjectRows
+                    .map(AIResponseCacheEntry::getResponseJson);
+            if (stored.isPresent()) {
+                persistentHits.increment();
+                local.put(key, stored.get());
+                logger.debug("AI response cache hit (persistent) for key {}", key);
+                return stored;
+            }
+        }
+        misses.increment();
+        logger.debug("AI response cache miss for key {}", key);
+        return Optional.empty();
+    }
+
+    public void put(String key, String responseJson) {
+        local.put(key, responseJson);
+        if (!persistent) {
+            return;
+        }
+        try {
+            AIResponseCacheEntry entry = new AIResponseCacheEntry();
+            entry.setCacheKey(key);
+            entry.setResponseJson(responseJson);
+            entry.setCreatedAt(Instant.now());
+            ownTransaction.executeWithoutResult(status -> repository.save(entry));
+        } catch (Exception e) {
+            // The persistent tier is best effort; the memory tier already holds the entry
+            logger.warn("Failed to persist AI response cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    // One-off cleanup of the rows written while responseJson was an @Lob; a no-op once they are gone
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeLargeObjectRows() {
+        if (!persistent) {
+            return;
+        }
+        try {
+            long unlinked = repository.deleteLargeObjectRows();
+            if (unlinked > 0) {
+                logger.info("Removed {} AI response cache entries stored as large objects", unlinked);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to remove AI response cache entries stored as large objects: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ai.cache.cleanupMs:3600000}")
+    public void purgeExpired() {
+        if (!persistent) {
+            return;
+        }
+        int deleted = repository.deleteCreatedBefore(Instant.now().minus(ttl));
+        if (deleted > 0) {
+            logger.info("Purged {} expired AI response cache entries", deleted);
+        }
+    }
+
+    public CacheStats localStats() {
+        return local.stats();
+    }
+
+    public long persistentHitCount() {
+        return persistentHits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+}
@@ -7,7 +7,8 @@ import com.aiassistant.backend.dto.auth.SignupRequest;
 import com.aiassistant.backend.model.User;
 import com.aiassistant.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -16,30 +17,58 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuthService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
+    private final LoginAttemptThrottle loginAttemptThrottle;
     private final JwtTokenProvider jwtTokenProvider;
 
-    public AuthResponse signup(SignupRequest req) {
+    public AuthResponse signup(SignupRequest req, String clientIp) {
+        loginAttemptThrottle.check(req.getEmail(), clientIp);
         if (userRepository.existsByEmail(req.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
         User user = new User();
         user.setEmail(req.getEmail());
         user.setName(req.getName());
-        user.setPasswordHash(passwordEncoder.encode(req.getPassword()));
+        user.setPasswordHash(passwordHashing.encode(req.getPassword()));
         userRepository.save(user);
-        String token = jwtTokenProvider.generateToken(user.getEmail(), Map.of("role", "USER"));
-        return new AuthResponse(token, user.getEmail(), user.getName());
+        return new AuthResponse(issueToken(user), user.getEmail(), user.getName());
     }
 
-    public AuthResponse login(LoginRequest req) {
-        var user = userRepository.findByEmail(req.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid credentials"));
-        if (!passwordEncoder.matches(req.getPassword(), user.getPasswordHash())) {
+    public AuthResponse login(LoginRequest req, String clientIp) {
+        // Throttled before the lookup and before any BCrypt work is queued
+        loginAttemptThrottle.check(req.getEmail(), clientIp);
+        var user = userRepository.findByEmail(req.getEmail()).orElse(null);
+        if (user == null || !passwordHashing.matches(req.getPassword(), user.getPasswordHash())) {
+            loginAttemptThrottle.recordFailure(req.getEmail(), clientIp);
             throw new RuntimeException("Invalid credentials");
         }
-        String token = jwtTokenProvider.generateToken(user.getEmail(), Map.of("role", "USER"));
-        return new AuthResponse(token, user.getEmail(), user.getName());
+        loginAttemptThrottle.reset(req.getEmail());
+        upgradeHashIfNeeded(user, req.getPassword());
+        return new AuthResponse(issueToken(user), user.getEmail(), user.getName());
+    }
+
+    // Re-hash at the configured cost once the plaintext is known to be correct
+    private void upgradeHashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashing.needsUpgrade(user.getPasswordHash())) {
+            return;
+        }
+        try {
+            user.setPasswordHash(passwordHashing.encode(rawPassword));
+            userRepository.save(user);
+        } catch (RuntimeException e) {
+            // The login already succeeded; the upgrade is retried on the next one
+            logger.warn("Skipped password hash upgrade for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    // Everything the request path needs about the user travels in the signed token
+    private String issueToken(User user) {
+        return jwtTokenProvider.generateToken(user.getEmail(), Map.of(
+                JwtTokenProvider.USER_ID_CLAIM, user.getId(),
+                JwtTokenProvider.ROLE_CLAIM, "USER",
+                JwtTokenProvider.PLAN_CLAIM, user.getPlan() != null ? user.getPlan() : User.PLAN_FREE));
     }
 }
@@ -0,0 +1,48 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.repository.DesignRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves rawOutput and mermaidCode of rows written before content_blobs into the blob store and clears the
+ * inline columns (unlinking the large objects behind them), once at startup. Postgres reclaims the freed space
+ * on the next VACUUM.
+ * Nodes starting together share the work: each row is locked (skipping rows another node holds) and
+ * re-checked before it is moved, so no row is moved or unlinked twice.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.blobs.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class ContentBlobMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentBlobMigration.class);
+
+    private final DesignRepository designRepository;
+    private final ContentBlobService contentBlobService;
+    private final DesignBackfillRunner backfillRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        int migrated = backfillRunner.run("Blob migration", designRepository::findIdsWithInlineContent, this::migrateDesign)
+                .getOrDefault(true, 0);
+        if (migrated > 0) {
+            logger.info("Moved inline content of {} designs to content_blobs", migrated);
+        }
+    }
+
+    private Boolean migrateDesign(Long id) {
+        return designRepository.lockWithInlineContent(id).map(d -> {
+            String rawOutput = d.getRawOutput();
+            String mermaidCode = d.getMermaidCode();
+            designRepository.unlinkInlineLargeObjects(id); // read above; rolled back with the rest on failure
+            contentBlobService.store(d, rawOutput, mermaidCode);
+            return true;
+        }).orElse(null);
+    }
+}
@@ -0,0 +1,112 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.model.CompressedTextConverter;
+import com.aiassistant.backend.model.ContentBlob;
+import com.aiassistant.backend.model.Design;
+import com.aiassistant.backend.repository.ContentBlobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Stores design text in content_blobs: identical outputs (cached or template-backed generations) share one
+ * compressed row, counted by reference. Runs inside the caller's write transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContentBlobService {
+
+    private final ContentBlobRepository contentBlobRepository;
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    // Points the design at blobs for the given text, dropping its references to the previous ones
+    public void store(Design design, String rawOutput, String mermaidCode) {
+        storeAll(List.of(design), Arrays.asList(rawOutput), Arrays.asList(mermaidCode));
+    }
+
+    /**
+     * {@link #store} for many designs at once. Reference counts change once per distinct hash, in hash order:
+     * writers whose designs share blobs then lock those rows in the same order and cannot deadlock.
+     */
+    public void storeAll(List<Design> designs, List<String> rawOutputs, List<String> mermaidCodes) {
+        TreeMap<String, Integer> deltas = new TreeMap<>(); // +1 per new reference, -1 per dropped one
+        Map<String, String> texts = new HashMap<>();
+        String[] rawHashes = new String[designs.size()];
+        String[] mermaidHashes = new String[designs.size()];
+        for (int i = 0; i < designs.size(); i++) {
+            Design design = designs.get(i);
+            rawHashes[i] = reference(rawOutputs.get(i), texts, deltas);
+            mermaidHashes[i] = reference(mermaidCodes.get(i), texts, deltas);
+            dereference(design.getRawOutputBlob(), deltas);
+            dereference(design.getMermaidBlob(), deltas);
+        }
+
+        // Counts change before the designs are touched: the native statements flush them, and a flush with the
+        // inline columns still set would rewrite them as new large objects
+        List<String> released = new ArrayList<>();
+        deltas.forEach((hash, delta) -> {
+            if (delta > 0) {
+                // Only new content pays for compression
+                if (contentBlobRepository.addReferences(hash, delta) == 0) {
+                    String text = texts.get(hash);
+                    contentBlobRepository.insertOrReference(hash, converter.convertToDatabaseColumn(text), text.length(), delta);
+                }
+            } else if (delta < 0) {
+                contentBlobRepository.removeReferences(hash, -delta);
+                released.add(hash);
+            }
+        });
+
+        for (int i = 0; i < designs.size(); i++) {
+            Design design = designs.get(i);
+            design.setRawOutputBlob(blob(rawHashes[i]));
+            design.setMermaidBlob(blob(mermaidHashes[i]));
+            design.setLegacyRawOutput(null);
+            design.setLegacyMermaidCode(null);
+        }
+        if (!released.isEmpty()) {
+            contentBlobRepository.flush(); // the designs must stop referencing a blob before it can be deleted
+            released.forEach(contentBlobRepository::deleteIfUnreferenced);
+        }
+    }
+
+    private String reference(String text, Map<String, String> texts, Map<String, Integer> deltas) {
+        if (text == null) {
+            return null;
+        }
+        String hash = hash(text);
+        texts.putIfAbsent(hash, text);
+        deltas.merge(hash, 1, Integer::sum);
+        return hash;
+    }
+
+    private void dereference(ContentBlob blob, Map<String, Integer> deltas) {
+        if (blob != null) {
+            deltas.merge(blob.getHash(), -1, Integer::sum); // the proxy's id, no load
+        }
+    }
+
+    private ContentBlob blob(String hash) {
+        return hash != null ? contentBlobRepository.getReferenceById(hash) : null;
+    }
+
+    static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(Objects.requireNonNull(text).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.aiassistant.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The loop shared by the startup backfills over designs: pages through the ids still to do in id order and
+ * runs the backfill's step on each design in its own transaction, so a run can be interrupted and resumed.
+ * A design whose step fails is logged and left for the next run.
+ */
+@Component
+@RequiredArgsConstructor
+public class DesignBackfillRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DesignBackfillRunner.class);
+    private static final int BATCH_SIZE = 100;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @FunctionalInterface
+    public interface IdPage {
+        // Up to limit ids greater than afterId, ascending
+        List<Long> after(long afterId, Pageable limit);
+    }
+
+    /**
+     * @param step runs inside the design's transaction; a null result means there was nothing to do
+     * @return how many designs ended with each non-null result
+     */
+    public <R> Map<R, Integer> run(String name, IdPage ids, Function<Long, R> step) {
+        Map<R, Integer> counts = new HashMap<>();
+        long afterId = 0;
+        List<Long> page;
+        do {
+            page = ids.after(afterId, PageRequest.of(0, BATCH_SIZE));
+            for (Long id : page) {
+                R result = runStep(name, id, step);
+                if (result != null) {
+                    counts.merge(result, 1, Integer::sum);
+                }
+                afterId = id;
+            }
+        } while (page.size() == BATCH_SIZE);
+        return counts;
+    }
+
+    private <R> R runStep(String name, Long id, Function<Long, R> step) {
+        try {
+            return transactionTemplate.execute(status -> step.apply(id));
+        } catch (Exception e) {
+            logger.warn("{} failed for design {}: {}", name, id, e.getMessage());
+            return null;
+        }
+    }
+}
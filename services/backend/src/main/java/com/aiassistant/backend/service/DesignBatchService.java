@@ -0,0 +1,225 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.BatchDesignRequestDTO;
+import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import com.aiassistant.backend.dto.design.DesignBatchItemDTO;
+import com.aiassistant.backend.dto.design.DesignBatchSummaryDTO;
+import com.aiassistant.backend.exception.ApiException;
+import com.aiassistant.backend.exception.ServiceBusyException;
+import com.aiassistant.backend.model.Design;
+import com.aiassistant.backend.model.User;
+import com.aiassistant.backend.repository.UserRepository;
+import com.aiassistant.backend.service.DesignService.PreparedDesign;
+import com.aiassistant.backend.util.BoundedFanOut;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk generation: AI calls fan out over the design stream executor, at most `concurrency` at a time, and finished
+ * designs are saved in chunks of persistChunk rows per transaction (one JDBC batch each). Every item is reported
+ * as an NDJSON line once saved or failed, followed by a summary line.
+ */
+@Service
+public class DesignBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DesignBatchService.class);
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    private final DesignService designService;
+    private final GenerationQuota generationQuota;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor designStreamExecutor;
+    private final int maxItems;
+    private final int maxConcurrency;
+    private final int persistChunk;
+    private final long timeoutMs;
+
+    public DesignBatchService(
+            DesignService designService,
+            GenerationQuota generationQuota,
+            UserRepository userRepository,
+            ObjectMapper objectMapper,
+            @Qualifier("designStreamExecutor") AsyncTaskExecutor designStreamExecutor,
+            @Value("${app.batch.maxItems:500}") int maxItems,
+            @Value("${app.batch.maxConcurrency:8}") int maxConcurrency,
+            @Value("${app.batch.persistChunk:50}") int persistChunk,
+            @Value("${app.batch.timeoutMs:1800000}") long timeoutMs) {
+        this.designService = designService;
+        this.generationQuota = generationQuota;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.designStreamExecutor = designStreamExecutor;
+        this.maxItems = maxItems;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.persistChunk = Math.max(1, persistChunk);
+        this.timeoutMs = timeoutMs;
+    }
+
+    public ResponseBodyEmitter start(BatchDesignRequestDTO req, Long userId, String plan) {
+        List<CreateDesignRequestDTO> items = req.getItems();
+        if (items.size() > maxItems) {
+            throw new ApiException("A batch holds at most " + maxItems + " designs");
+        }
+        int limit = Math.min(maxConcurrency, generationQuota.plan(plan).maxConcurrent());
+        int concurrency = req.getConcurrency() != null ? Math.max(1, Math.min(req.getConcurrency(), limit)) : limit;
+        // One token per design, and one of the user's concurrent generations per lane
+        GenerationQuota.Permit permit = generationQuota.acquire(userId, plan, items.size(), concurrency);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        Batch batch = new Batch(emitter, userRepository.getReferenceById(userId), items.size(), permit);
+        emitter.onTimeout(batch::close);
+        emitter.onError(e -> batch.close());
+        try {
+            BoundedFanOut.run(items, concurrency, designStreamExecutor, r -> designService.prepareDesign(r, userId),
+                            batch::onGenerated, batch::isClosed)
+                    .whenComplete((v, e) -> batch.finish());
+        } catch (RejectedExecutionException e) {
+            permit.close();
+            throw new ServiceBusyException("Design generation is at capacity, retry shortly", 5);
+        }
+        logger.info("Started batch of {} designs for user {} (concurrency {})", items.size(), userId, concurrency);
+        return emitter;
+    }
+
+    private record Pending(int index, PreparedDesign design) {}
+
+    private final class Batch {
+        private final ResponseBodyEmitter emitter;
+        private final User user;
+        private final int total;
+        private final GenerationQuota.Permit permit;
+        private final long startedAt = System.nanoTime();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private List<Pending> pending = new ArrayList<>(); // guarded by this
+
+        Batch(ResponseBodyEmitter emitter, User user, int total, GenerationQuota.Permit permit) {
+            this.emitter = emitter;
+            this.user = user;
+            this.total = total;
+            this.permit = permit;
+        }
+
+        // Runs on the lane that generated the item; a full chunk is saved by whichever lane filled it
+        void onGenerated(int index, CreateDesignRequestDTO req, PreparedDesign design, Throwable error) {
+            if (error != null) {
+                failed.incrementAndGet();
+                send(DesignBatchItemDTO.builder()
+                        .index(index)
+                        .status(DesignBatchItemDTO.FAILED)
+                        .prompt(req.getPrompt())
+                        .error(String.valueOf(error.getMessage()))
+                        .build());
+                return;
+            }
+            List<Pending> chunk = null;
+            synchronized (this) {
+                pending.add(new Pending(index, design));
+                if (pending.size() >= persistChunk) {
+                    chunk = pending;
+                    pending = new ArrayList<>();
+                }
+            }
+            if (chunk != null) {
+                persist(chunk);
+            }
+        }
+
+        // Designs already generated are saved even if the client went away
+        void finish() {
+            permit.close(); // every AI call is done
+            List<Pending> rest;
+            synchronized (this) {
+                rest = pending;
+                pending = new ArrayList<>();
+            }
+            if (!rest.isEmpty()) {
+                persist(rest);
+            }
+            // Items skipped after the client went away never cost an AI call, so they do not cost quota either
+            permit.refund(total - created.get() - failed.get());
+            long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+            send(DesignBatchSummaryDTO.builder()
+                    .done(true)
+                    .total(total)
+                    .created(created.get())
+                    .failed(failed.get())
+                    .elapsedMs(elapsedMs)
+                    .build());
+            logger.info("Batch finished: {} created, {} failed, {} not started, in {} ms",
+                    created.get(), failed.get(), total - created.get() - failed.get(), elapsedMs);
+            if (!closed.get()) {
+                emitter.complete();
+            }
+        }
+
+        private void persist(List<Pending> chunk) {
+            try {
+                List<Design> saved = designService.persistDesigns(chunk.stream().map(Pending::design).toList(), user);
+                for (int i = 0; i < saved.size(); i++) {
+                    Pending p = chunk.get(i);
+                    created.incrementAndGet();
+                    send(DesignBatchItemDTO.builder()
+                            .index(p.index())
+                            .status(DesignBatchItemDTO.CREATED)
+                            .id(saved.get(i).getId())
+                            .prompt(p.design().request().getPrompt())
+                            .degraded(Boolean.TRUE.equals(p.design().design().getDegraded()) ? true : null)
+                            .build());
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to save {} batch designs: {}", chunk.size(), e.getMessage(), e);
+                for (Pending p : chunk) {
+                    failed.incrementAndGet();
+                    send(DesignBatchItemDTO.builder()
+                            .index(p.index())
+                            .status(DesignBatchItemDTO.FAILED)
+                            .prompt(p.design().request().getPrompt())
+                            .error("Failed to save design: " + e.getMessage())
+                            .build());
+                }
+            }
+        }
+
+        // One write per line, so lines from concurrent lanes never interleave
+        private void send(Object line) {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                emitter.send(objectMapper.writeValueAsString(line) + "\n", NDJSON);
+            } catch (JsonProcessingException e) {
+                logger.warn("Failed to serialize batch line: {}", e.getMessage());
+            } catch (IOException | IllegalStateException e) {
+                // Client went away: stop starting new items
+                logger.debug("Batch stream closed: {}", e.getMessage());
+                close();
+            }
+        }
+
+        void close() {
+            closed.set(true);
+        }
+
+        boolean isClosed() {
+            return closed.get();
+        }
+    }
+}
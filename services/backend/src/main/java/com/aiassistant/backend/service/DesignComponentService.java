@@ -0,0 +1,144 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.AIDesignDTO;
+import com.aiassistant.backend.dto.design.ApiDTO;
+import com.aiassistant.backend.dto.design.DatabaseDTO;
+import com.aiassistant.backend.dto.design.DesignApiDTO;
+import com.aiassistant.backend.dto.design.ServiceDTO;
+import com.aiassistant.backend.model.Design;
+import com.aiassistant.backend.model.DesignComponent;
+import com.aiassistant.backend.repository.DesignComponentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Derives the query-side data of a design (design_components rows, search text) from its AI output,
+// so structured queries and search never parse rawOutput
+@Service
+@RequiredArgsConstructor
+public class DesignComponentService {
+
+    private static final int MAX_API_RESULTS = 500;
+
+    private final DesignComponentRepository designComponentRepository;
+
+    // Runs inside the caller's write transaction, so a design and its components are saved together
+    public void index(Design design, AIDesignDTO ai) {
+        designComponentRepository.saveAll(extract(design, ai));
+    }
+
+    // Rebuilds both for an existing (managed) design
+    public void reindex(Design design, AIDesignDTO ai) {
+        designComponentRepository.deleteByDesignId(design.getId());
+        index(design, ai);
+        design.setSearchText(searchText(ai));
+    }
+
+    // Notes, service names and responsibilities as plain text for the full-text index; the prompt is indexed separately
+    public String searchText(AIDesignDTO ai) {
+        StringBuilder text = new StringBuilder();
+        if (ai.getNotes() instanceof Collection<?> notes) {
+            notes.forEach(note -> append(text, String.valueOf(note)));
+        } else if (ai.getNotes() != null) {
+            append(text, String.valueOf(ai.getNotes()));
+        }
+        if (ai.getServices() != null) {
+            for (ServiceDTO s : ai.getServices()) {
+                if (s == null) {
+                    continue;
+                }
+                append(text, s.getName());
+                if (s.getResponsibilities() != null) {
+                    s.getResponsibilities().forEach(r -> append(text, r));
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    @Transactional(readOnly = true)
+    public List<DesignApiDTO> findApis(Long userId, String service, int limit) {
+        String normalized = DesignComponent.normalize(service);
+        if (normalized == null) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_API_RESULTS));
+        return designComponentRepository.findApis(userId, normalized, PageRequest.of(0, size));
+    }
+
+    public static String normalizeMethod(String method) {
+        String normalized = DesignComponent.normalize(method);
+        return normalized != null ? normalized.toUpperCase(Locale.ROOT) : null;
+    }
+
+    private List<DesignComponent> extract(Design design, AIDesignDTO ai) {
+        List<DesignComponent> components = new ArrayList<>();
+        Set<String> seen = new HashSet<>(); // one row per (kind, value, service)
+        if (ai.getServices() != null) {
+            for (ServiceDTO s : ai.getServices()) {
+                if (s == null) {
+                    continue;
+                }
+                String service = DesignComponent.normalize(s.getName());
+                add(components, seen, design, DesignComponent.SERVICE, service, null, s.getName());
+                if (s.getTechSuggestions() != null) {
+                    s.getTechSuggestions().forEach(tech ->
+                            add(components, seen, design, DesignComponent.TECH, DesignComponent.normalize(tech), service, tech));
+                }
+                if (s.getEvents() != null) {
+                    s.getEvents().forEach(event ->
+                            add(components, seen, design, DesignComponent.EVENT, DesignComponent.normalize(event), service, event));
+                }
+            }
+        }
+        if (ai.getDatabases() != null) {
+            for (DatabaseDTO db : ai.getDatabases()) {
+                if (db != null) {
+                    add(components, seen, design, DesignComponent.DATABASE_TYPE, DesignComponent.normalize(db.getType()), null, db.getName());
+                }
+            }
+        }
+        if (ai.getApis() != null) {
+            for (ApiDTO api : ai.getApis()) {
+                if (api != null) {
+                    add(components, seen, design, DesignComponent.API, normalizeMethod(api.getMethod()),
+                            DesignComponent.normalize(api.getService()), api.getPath());
+                }
+            }
+        }
+        return components;
+    }
+
+    private void append(StringBuilder text, String value) {
+        if (value != null && !value.isBlank()) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(value.trim());
+        }
+    }
+
+    private void add(List<DesignComponent> components, Set<String> seen, Design design,
+                     String kind, String value, String service, String label) {
+        // APIs are distinguished by path too, everything else by (kind, value, service)
+        if (value == null || !seen.add(kind + '\u0000' + value + '\u0000' + service + '\u0000' + (DesignComponent.API.equals(kind) ? label : ""))) {
+            return;
+        }
+        DesignComponent c = new DesignComponent();
+        c.setDesign(design);
+        c.setUserId(design.getUser().getId());
+        c.setKind(kind);
+        c.setValue(value);
+        c.setService(service);
+        c.setLabel(label != null && label.length() > 1000 ? label.substring(0, 1000) : label);
+        components.add(c);
+    }
+}
@@ -0,0 +1,158 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.DesignResponseDTO;
+import com.aiassistant.backend.exception.ApiException;
+import com.aiassistant.backend.exception.ServiceBusyException;
+import com.aiassistant.backend.mapper.DesignMapper;
+import com.aiassistant.backend.model.Design;
+import com.aiassistant.backend.repository.DesignRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export of all of a user's designs, as NDJSON (one DesignResponseDTO per line) or as a ZIP holding
+ * design-{id}.json and design-{id}.mmd per design. Rows are read through a cursor and written straight to the
+ * response, and the persistence context is cleared every fetch, so memory stays flat however many designs there are.
+ */
+@Service
+public class DesignExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String ZIP = "zip";
+
+    private static final Logger logger = LoggerFactory.getLogger(DesignExportService.class);
+
+    private final DesignRepository designRepository;
+    private final DesignMapper designMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnly;
+    private final ObjectWriter writer;
+    private final Semaphore running;
+
+    public DesignExportService(
+            DesignRepository designRepository,
+            DesignMapper designMapper,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.export.maxConcurrent:2}") int maxConcurrent) {
+        this.designRepository = designRepository;
+        this.designMapper = designMapper;
+        this.entityManager = entityManager;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        // The servlet's response buffer decides when bytes go out, not a flush per design
+        this.writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        // Each running export holds a pooled connection for its whole duration
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    public static boolean isZip(String format) {
+        return ZIP.equalsIgnoreCase(format);
+    }
+
+    public StreamingResponseBody export(Long userId, String format, HttpServletRequest request) {
+        boolean zip = isZip(format);
+        if (!zip && !NDJSON.equalsIgnoreCase(format)) {
+            throw new ApiException("Unsupported export format: " + format);
+        }
+        if (!running.tryAcquire()) {
+            throw new ServiceBusyException("Too many exports in progress, retry shortly", 30);
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                running.release();
+            }
+        };
+        // The body may never run (async timeout, executor full, client gone first); the request's end frees it then
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(this, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                release.run();
+            }
+        });
+        return out -> {
+            long startedAt = System.nanoTime();
+            try {
+                Long count = readOnly.execute(status -> write(userId, out, zip));
+                logger.info("Exported {} designs for user {} as {} in {} ms", count, userId, zip ? ZIP : NDJSON,
+                        (System.nanoTime() - startedAt) / 1_000_000);
+            } catch (UncheckedIOException e) {
+                // Usually the client going away; what was sent so far is all it gets
+                logger.warn("Export for user {} stopped: {}", userId, e.getCause().getMessage());
+                throw e.getCause();
+            } finally {
+                release.run();
+            }
+        };
+    }
+
+    private long write(Long userId, OutputStream out, boolean zip) {
+        long count = 0;
+        try (Stream<Design> designs = designRepository.streamForExport(userId)) {
+            ZipOutputStream zipOut = zip ? new ZipOutputStream(out, StandardCharsets.UTF_8) : null;
+            Iterator<Design> it = designs.iterator();
+            while (it.hasNext()) {
+                DesignResponseDTO design = designMapper.toDTO(it.next());
+                if (zipOut != null) {
+                    writeEntries(zipOut, design);
+                } else {
+                    writer.writeValue(out, design);
+                    out.write('\n');
+                }
+                if (++count % DesignRepository.EXPORT_FETCH_SIZE == 0) {
+                    // Written designs (and their blobs) are no longer needed
+                    entityManager.clear();
+                    (zipOut != null ? zipOut : out).flush();
+                }
+            }
+            if (zipOut != null) {
+                zipOut.finish(); // the central directory; the response stream itself stays open
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private void writeEntries(ZipOutputStream zip, DesignResponseDTO design) throws IOException {
+        String name = "design-" + design.getId();
+        zip.putNextEntry(new ZipEntry(name + ".json"));
+        writer.writeValue(zip, design);
+        zip.closeEntry();
+        if (design.getMermaidCode() != null) {
+            zip.putNextEntry(new ZipEntry(name + ".mmd"));
+            zip.write(design.getMermaidCode().getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.AIDesignDTO;
+import com.aiassistant.backend.repository.DesignRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds components and search text for designs written before they existed, once at startup;
+ * rows whose rawOutput does not parse are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.index.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class DesignIndexBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(DesignIndexBackfill.class);
+
+    private final DesignRepository designRepository;
+    private final DesignComponentService designComponentService;
+    private final ObjectMapper objectMapper;
+    private final DesignBackfillRunner backfillRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int indexed = backfillRunner.run("Index backfill", designRepository::findIdsToIndex, this::indexDesign)
+                .getOrDefault(true, 0);
+        if (indexed > 0) {
+            logger.info("Backfilled components and search text for {} designs", indexed);
+        }
+    }
+
+    private Boolean indexDesign(Long id) {
+        return designRepository.findById(id).map(d -> {
+            try {
+                designComponentService.reindex(d, objectMapper.readValue(d.getRawOutput(), AIDesignDTO.class));
+                return true;
+            } catch (Exception e) {
+                logger.debug("Skipping index backfill for design {}: {}", id, e.getMessage());
+                return false;
+            }
+        }).orElse(null);
+    }
+}
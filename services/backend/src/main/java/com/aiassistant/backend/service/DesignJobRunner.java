@@ -0,0 +1,200 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import com.aiassistant.backend.dto.design.DesignResponseDTO;
+import com.aiassistant.backend.metrics.DesignMetrics;
+import com.aiassistant.backend.model.User;
+import com.aiassistant.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs queued advanced jobs in the scheduler's advanced lane, so each user's jobs take turns with everyone
+ * else's instead of running in Kafka partition order. The job row is the durable queue: a node leases a job
+ * before queueing it and renews the lease while it holds the job, so when a node stops, its leases lapse and
+ * whichever node recovers next takes those jobs over. Runs are claimed by the lease holder only.
+ */
+@Service
+public class DesignJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DesignJobRunner.class);
+
+    private final FairJobScheduler fairJobScheduler;
+    private final DesignService designService;
+    private final DesignJobService designJobService;
+    private final UserRepository userRepository;
+    private final DesignMetrics designMetrics;
+    private final TaskScheduler taskScheduler;
+    private final String nodeId = System.getenv().getOrDefault("HOSTNAME", "node") + "-" + UUID.randomUUID().toString().substring(0, 8);
+    private final Set<Long> held = ConcurrentHashMap.newKeySet(); // jobs leased here and not yet finished
+    private final int maxQueued;
+    private final Duration lease;
+    private final Duration unleasedAfter;
+    private final int attempts;
+    private final long backoffMs;
+    private final double backoffMultiplier;
+    private final long maxBackoffMs;
+
+    public DesignJobRunner(
+            FairJobScheduler fairJobScheduler,
+            DesignService designService,
+            DesignJobService designJobService,
+            UserRepository userRepository,
+            DesignMetrics designMetrics,
+            TaskScheduler taskScheduler,
+            @Value("${app.scheduler.advanced.maxQueued:1000}") int maxQueued,
+            @Value("${app.scheduler.advanced.leaseSeconds:60}") long leaseSeconds,
+            @Value("${app.scheduler.advanced.unleasedMinutes:10}") long unleasedMinutes,
+            @Value("${app.kafka.jobs.attempts:4}") int attempts,
+            @Value("${app.kafka.jobs.backoffMs:2000}") long backoffMs,
+            @Value("${app.kafka.jobs.backoffMultiplier:2.0}") double backoffMultiplier,
+            @Value("${app.kafka.jobs.maxBackoffMs:60000}") long maxBackoffMs) {
+        this.fairJobScheduler = fairJobScheduler;
+        this.designService = designService;
+        this.designJobService = designJobService;
+        this.userRepository = userRepository;
+        this.designMetrics = designMetrics;
+        this.taskScheduler = taskScheduler;
+        this.maxQueued = maxQueued;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.unleasedAfter = Duration.ofMinutes(unleasedMinutes);
+        this.attempts = Math.max(1, attempts);
+        this.backoffMs = backoffMs;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    /**
+     * Leases the job to this node and queues it; false if another node holds it or it finished. Never blocks:
+     * the consumer pauses itself while {@link #hasCapacity()} is false.
+     */
+    public boolean accept(Long jobId, CreateDesignRequestDTO req, User user) {
+        if (!designJobService.lease(jobId, nodeId, leaseUntil())) {
+            return false;
+        }
+        hold(jobId, req, user);
+        return true;
+    }
+
+    // False once app.scheduler.advanced.maxQueued jobs are held here
+    public boolean hasCapacity() {
+        return held.size() < maxQueued;
+    }
+
+    private void hold(Long jobId, CreateDesignRequestDTO req, User user) {
+        held.add(jobId);
+        try {
+            submit(jobId, req, user, 1);
+        } catch (RuntimeException e) {
+            held.remove(jobId); // not renewed from here on, so it is recovered once the lease lapses
+            throw e;
+        }
+    }
+
+    private void submit(Long jobId, CreateDesignRequestDTO req, User user, int attempt) {
+        fairJobScheduler.submit(FairJobScheduler.ADVANCED, user.getId(), () -> run(jobId, req, user, attempt));
+    }
+
+    private void run(Long jobId, CreateDesignRequestDTO req, User user, int attempt) {
+        Timer.Sample sample = designMetrics.start();
+        String outcome = DesignMetrics.ERROR;
+        boolean finished = true;
+        try {
+            if (!designJobService.claim(jobId, nodeId)) {
+                logger.info("Skipping design job {}: finished or taken over by another node", jobId);
+                outcome = "duplicate";
+                return;
+            }
+            // Duplicate jobs in flight on this node share one AI call
+            DesignResponseDTO design = designService.generateDesign(req, user);
+            designJobService.markCompleted(jobId, design.getId());
+            outcome = DesignMetrics.SUCCESS;
+            logger.info("Processed design job {} for userId: {} (attempt {})", jobId, user.getId(), attempt);
+        } catch (RuntimeException e) {
+            finished = !retry(jobId, req, user, attempt, e);
+        } finally {
+            designMetrics.stop(sample, "design.jobs", req.getComplexity(), outcome);
+            if (finished) {
+                held.remove(jobId);
+            }
+        }
+    }
+
+    // Schedules the next attempt with exponential backoff; false once attempts are used up
+    private boolean retry(Long jobId, CreateDesignRequestDTO req, User user, int attempt, RuntimeException e) {
+        if (attempt >= attempts) {
+            logger.error("Design job {} failed after {} attempts: {}", jobId, attempt, e.getMessage(), e);
+            designMetrics.deadLettered();
+            designJobService.markFailed(jobId, "Design generation failed after retries");
+            return false;
+        }
+        long delay = Math.min(maxBackoffMs, (long) (backoffMs * Math.pow(backoffMultiplier, attempt - 1)));
+        logger.warn("Design job {} attempt {} failed, retrying in {} ms: {}", jobId, attempt, delay, e.getMessage());
+        try {
+            designJobService.requeue(jobId);
+            taskScheduler.schedule(() -> {
+                try {
+                    submit(jobId, req, user, attempt + 1);
+                } catch (RuntimeException ex) {
+                    held.remove(jobId);
+                    logger.error("Failed to resubmit design job {}: {}", jobId, ex.getMessage(), ex);
+                }
+            }, Instant.now().plusMillis(delay));
+            return true;
+        } catch (RuntimeException ex) {
+            // No longer renewed, so recovery picks it up once the lease lapses
+            logger.error("Failed to schedule retry of design job {}: {}", jobId, ex.getMessage(), ex);
+            return false;
+        }
+    }
+
+    // Heartbeat: well within app.scheduler.advanced.leaseSeconds, so a live node never loses its jobs
+    @Scheduled(fixedDelayString = "${app.scheduler.advanced.renewMs:20000}")
+    public void renewLeases() {
+        if (held.isEmpty()) {
+            return;
+        }
+        try {
+            designJobService.renewLeases(List.copyOf(held), nodeId, leaseUntil());
+        } catch (RuntimeException e) {
+            logger.error("Failed to renew design job leases: {}", e.getMessage(), e);
+        }
+    }
+
+    // Takes over jobs whose nodes stopped renewing their leases, as many as fit here
+    @Scheduled(fixedDelayString = "${app.scheduler.advanced.recoveryMs:30000}")
+    public void recoverExpired() {
+        int free = maxQueued - held.size();
+        if (free <= 0) {
+            return;
+        }
+        try {
+            List<DesignJobService.QueuedJob> jobs =
+                    designJobService.leaseExpired(nodeId, leaseUntil(), Instant.now().minus(unleasedAfter), free);
+            for (DesignJobService.QueuedJob job : jobs) {
+                hold(job.id(), job.request(), userRepository.getReferenceById(job.userId()));
+            }
+            if (!jobs.isEmpty()) {
+                logger.info("Took over {} design jobs with lapsed leases", jobs.size());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Design job recovery failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private Instant leaseUntil() {
+        return Instant.now().plus(lease);
+    }
+}
@@ -0,0 +1,215 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import com.aiassistant.backend.dto.design.DesignJobDTO;
+import com.aiassistant.backend.model.DesignRequest;
+import com.aiassistant.backend.model.User;
+import com.aiassistant.backend.repository.DesignRepository;
+import com.aiassistant.backend.repository.DesignRequestRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Lifecycle of queued (advanced) design jobs: QUEUED -> RUNNING -> COMPLETED/FAILED
+@Service
+@RequiredArgsConstructor
+public class DesignJobService {
+
+    private static final long MAX_WAIT_SECONDS = 30;
+
+    private final DesignRequestRepository designRequestRepository;
+    private final DesignRepository designRepository;
+    private final ObjectMapper objectMapper;
+
+    private record Waiter(Long userId, DeferredResult<ResponseEntity<DesignJobDTO>> result) {}
+
+    // Long polls held per job; each removes itself when it completes, so expired waits leave nothing behind
+    private final ConcurrentHashMap<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    public DesignRequest create(CreateDesignRequestDTO req, User user) {
+        DesignRequest job = new DesignRequest();
+        job.setPrompt(req.getPrompt());
+        job.setUser(user);
+        job.setStatus(DesignRequest.QUEUED);
+        job.setCreatedAt(Instant.now());
+        try {
+            job.setRequestJson(objectMapper.writeValueAsString(req));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize design request: " + e.getMessage(), e);
+        }
+        return designRequestRepository.save(job);
+    }
+
+    // Takes the job's lease for this node; false if another node holds it or it finished (outbox delivery is
+    // at-least-once, so redelivered jobs end here)
+    @Transactional
+    public boolean lease(Long jobId, String owner, Instant until) {
+        return designRequestRepository.lease(jobId, owner, until, Instant.now()) == 1;
+    }
+
+    @Transactional
+    public void renewLeases(Collection<Long> jobIds, String owner, Instant until) {
+        designRequestRepository.renewLeases(jobIds, owner, until);
+    }
+
+    /** Takes the job for one run; false if this node lost its lease (another took over) or the job finished. */
+    @Transactional
+    public boolean claim(Long jobId, String owner) {
+        boolean claimed = designRequestRepository.claim(jobId, owner, Instant.now()) == 1;
+        if (claimed) {
+            signalAfterCommit(jobId);
+        }
+        return claimed;
+    }
+
+    // Back to QUEUED while a failed run waits for its retry, so the status reads right in between
+    @Transactional
+    public void requeue(Long jobId) {
+        designRequestRepository.requeue(jobId);
+        signalAfterCommit(jobId);
+    }
+
+    // A job as queued, enough to run it again
+    public record QueuedJob(Long id, Long userId, CreateDesignRequestDTO request) {}
+
+    // Leases up to {@code limit} jobs whose holders stopped, for this node to run
+    @Transactional
+    public List<QueuedJob> leaseExpired(String owner, Instant until, Instant unleasedBefore, int limit) {
+        List<Long> ids = designRequestRepository.leaseExpired(owner, until, Instant.now(), unleasedBefore, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<QueuedJob> jobs = new ArrayList<>();
+        for (DesignRequest job : designRequestRepository.findAllById(ids)) {
+            try {
+                jobs.add(new QueuedJob(job.getId(), job.getUser().getId(), // proxy id, no extra query
+                        objectMapper.readValue(job.getRequestJson(), CreateDesignRequestDTO.class)));
+            } catch (JsonProcessingException e) {
+                // Would fail the same way on every node that took it over
+                job.setStatus(DesignRequest.FAILED);
+                job.setErrorMessage("Unreadable design request");
+                job.setCompletedAt(Instant.now());
+                signalAfterCommit(job.getId());
+            }
+        }
+        return jobs;
+    }
+
+    @Transactional
+    public void markCompleted(Long jobId, Long designId) {
+        designRequestRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(DesignRequest.COMPLETED);
+            job.setDesign(designRepository.getReferenceById(designId));
+            job.setErrorMessage(null);
+            job.setCompletedAt(Instant.now());
+        });
+        signalAfterCommit(jobId);
+    }
+
+    @Transactional
+    public void markFailed(Long jobId, String error) {
+        designRequestRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(DesignRequest.FAILED);
+            job.setErrorMessage(error);
+            job.setCompletedAt(Instant.now());
+        });
+        signalAfterCommit(jobId);
+    }
+
+    public Optional<DesignJobDTO> findJob(Long jobId, Long userId) {
+        return designRequestRepository.findByIdAndUserId(jobId, userId).map(job -> DesignJobDTO.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .designId(job.getDesign() != null ? job.getDesign().getId() : null) // proxy id, no extra query
+                .error(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build());
+    }
+
+    /**
+     * Status poll with ETag semantics. If the client's If-None-Match still matches and it asked to wait,
+     * the response is held until the job changes on this node or the wait expires (then 304).
+     */
+    public DeferredResult<ResponseEntity<DesignJobDTO>> poll(Long jobId, Long userId, String ifNoneMatch, long waitSeconds) {
+        long wait = Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS));
+        ResponseEntity<DesignJobDTO> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        DeferredResult<ResponseEntity<DesignJobDTO>> result = new DeferredResult<>(wait * 1000, notModified);
+
+        // Register before reading so a change between the read and the wait is not missed
+        Waiter waiter = new Waiter(userId, result);
+        waiters.compute(jobId, (id, set) -> {
+            Set<Waiter> s = set != null ? set : ConcurrentHashMap.newKeySet();
+            s.add(waiter);
+            return s;
+        });
+        result.onCompletion(() -> removeWaiter(jobId, waiter)); // result set, timed out or client gone
+        ResponseEntity<DesignJobDTO> now = current(jobId, userId);
+        boolean unchanged = ifNoneMatch != null && ifNoneMatch.equals(now.getHeaders().getETag());
+        // Finished jobs never change again
+        if (!unchanged || wait == 0 || isTerminal(now.getBody())) {
+            removeWaiter(jobId, waiter);
+            result.setResult(unchanged ? notModified : now);
+            return result;
+        }
+
+        // Waiters only see changes made on this node; otherwise the wait expires with 304 and the client polls again
+        return result;
+    }
+
+    private void removeWaiter(Long jobId, Waiter waiter) {
+        waiters.computeIfPresent(jobId, (id, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private ResponseEntity<DesignJobDTO> current(Long jobId, Long userId) {
+        return findJob(jobId, userId)
+                .map(job -> ResponseEntity.ok().eTag(etag(job)).body(job))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private String etag(DesignJobDTO job) {
+        return "\"job-" + job.getId() + "-" + job.getStatus() + "\"";
+    }
+
+    private boolean isTerminal(DesignJobDTO job) {
+        return job != null && (DesignRequest.COMPLETED.equals(job.getStatus()) || DesignRequest.FAILED.equals(job.getStatus()));
+    }
+
+    private void signalAfterCommit(Long jobId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Set<Waiter> woken = waiters.remove(jobId);
+                if (woken == null) {
+                    return;
+                }
+                // One read per polling user (normally just the owner), however many polls are held
+                Map<Long, ResponseEntity<DesignJobDTO>> byUser = new HashMap<>();
+                for (Waiter w : woken) {
+                    w.result().setResult(byUser.computeIfAbsent(w.userId(), userId -> current(jobId, userId)));
+                }
+            }
+        });
+    }
+}
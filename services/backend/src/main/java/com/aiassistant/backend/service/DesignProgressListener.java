@@ -0,0 +1,10 @@
+package com.aiassistant.backend.service;
+
+// Receives generation milestones (ai-started, services, databases, apis, mermaid, persisted) as they happen
+@FunctionalInterface
+public interface DesignProgressListener {
+
+    DesignProgressListener NONE = (event, data) -> {};
+
+    void onProgress(String event, Object data);
+}
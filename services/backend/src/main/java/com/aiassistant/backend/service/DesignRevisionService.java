@@ -0,0 +1,156 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.DesignRevisionDTO;
+import com.aiassistant.backend.model.Design;
+import com.aiassistant.backend.model.DesignRevision;
+import com.aiassistant.backend.repository.DesignRevisionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.flipkart.zjsonpatch.JsonDiff;
+import com.flipkart.zjsonpatch.JsonPatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revision storage for designs. A revision is the document {prompt, rawOutput, mermaidCode}; the design row
+ * holds the newest one, older ones are rebuilt from the nearest snapshot plus the patches after it.
+ * A row becomes a snapshot every snapshotEvery revisions, or when its patch would be no smaller than the document.
+ */
+@Service
+public class DesignRevisionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DesignRevisionService.class);
+
+    private final DesignRevisionRepository designRevisionRepository;
+    private final ObjectMapper objectMapper;
+    private final int snapshotEvery;
+
+    public DesignRevisionService(DesignRevisionRepository designRevisionRepository, ObjectMapper objectMapper,
+                                 @Value("${app.revisions.snapshotEvery:10}") int snapshotEvery) {
+        this.designRevisionRepository = designRevisionRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotEvery = Math.max(1, snapshotEvery);
+    }
+
+    public static int head(Design design) {
+        return design.getRevision() != null ? design.getRevision() : 1;
+    }
+
+    /**
+     * Records the design's current content as a new revision's parent and stores the patch to the new content.
+     * Runs inside the caller's write transaction, with the design row locked; the caller then updates the row.
+     */
+    public int append(Design design, JsonNode next) {
+        JsonNode current = document(design);
+        int parent = head(design);
+        if (design.getRevision() == null) {
+            // Designs are only written to design_revisions once they get a second revision
+            save(design, 1, null, true, write(current));
+        }
+        int revision = parent + 1;
+        String patch = write(JsonDiff.asJson(current, next));
+        String full = write(next);
+        boolean snapshot = (revision - 1) % snapshotEvery == 0 || patch.length() >= full.length();
+        save(design, revision, parent, snapshot, snapshot ? full : patch);
+        logger.debug("Design {} revision {} stored as {} ({} chars)", design.getId(), revision,
+                snapshot ? "snapshot" : "patch", snapshot ? full.length() : patch.length());
+        return revision;
+    }
+
+    public JsonNode reconstruct(Design design, int revision) {
+        int head = head(design);
+        if (revision < 1 || revision > head) {
+            return null;
+        }
+        if (revision == head) {
+            return document(design);
+        }
+        DesignRevision base = designRevisionRepository
+                .findTopByDesignIdAndSnapshotTrueAndRevisionLessThanEqualOrderByRevisionDesc(design.getId(), revision)
+                .orElseThrow(() -> new IllegalStateException("No snapshot for design " + design.getId()));
+        JsonNode doc = read(base.getContent());
+        if (base.getRevision() < revision) {
+            for (DesignRevision r : designRevisionRepository.findByDesignIdAndRevisionBetweenOrderByRevisionAsc(
+                    design.getId(), base.getRevision() + 1, revision)) {
+                doc = r.isSnapshot() ? read(r.getContent()) : JsonPatch.apply(read(r.getContent()), doc);
+            }
+        }
+        return doc;
+    }
+
+    public JsonNode diff(JsonNode from, JsonNode to) {
+        return JsonDiff.asJson(from, to);
+    }
+
+    public List<DesignRevisionDTO> lineage(Design design) {
+        if (design.getRevision() == null) {
+            // Never revised: the design row is revision 1
+            return List.of(new DesignRevisionDTO(1, null, true, write(document(design)).length(), design.getCreatedAt()));
+        }
+        return designRevisionRepository.findLineage(design.getId());
+    }
+
+    public ObjectNode document(Design design) {
+        return document(design.getPrompt(), design.getRawOutput(), design.getMermaidCode());
+    }
+
+    public ObjectNode document(String prompt, String rawOutput, String mermaidCode) {
+        ObjectNode doc = objectMapper.createObjectNode();
+        doc.put("prompt", prompt);
+        doc.set("rawOutput", rawOutputTree(rawOutput));
+        doc.put("mermaidCode", mermaidCode);
+        return doc;
+    }
+
+    // rawOutput of a rebuilt document, as JSON text for DesignResponseDTO
+    public String rawOutputJson(JsonNode document) {
+        return write(document.path("rawOutput"));
+    }
+
+    // Structural diffs need the tree; rows written before validation may not parse and are kept as a string
+    private JsonNode rawOutputTree(String rawOutput) {
+        if (rawOutput == null) {
+            return objectMapper.nullNode();
+        }
+        try {
+            return objectMapper.readTree(rawOutput);
+        } catch (JsonProcessingException e) {
+            return TextNode.valueOf(rawOutput);
+        }
+    }
+
+    private void save(Design design, int revision, Integer parent, boolean snapshot, String content) {
+        DesignRevision r = new DesignRevision();
+        r.setDesign(design);
+        r.setRevision(revision);
+        r.setParentRevision(parent);
+        r.setSnapshot(snapshot);
+        r.setContent(content);
+        r.setCreatedAt(revision == 1 ? design.getCreatedAt() : Instant.now());
+        designRevisionRepository.save(r);
+    }
+
+    private String write(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize design revision: " + e.getMessage(), e);
+        }
+    }
+
+    private JsonNode read(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Corrupt design revision: " + e.getMessage(), e);
+        }
+    }
+}
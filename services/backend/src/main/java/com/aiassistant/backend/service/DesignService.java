@@ -1,33 +1,60 @@
 package com.aiassistant.backend.service;
 
 import com.aiassistant.backend.client.AIServiceClient;
+import com.aiassistant.backend.dto.common.CursorPage;
+import com.aiassistant.backend.dto.design.AIDesignDTO;
 import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import com.aiassistant.backend.dto.design.DesignDiffDTO;
 import com.aiassistant.backend.dto.design.DesignResponseDTO;
+import com.aiassistant.backend.dto.design.DesignRevisionDTO;
+import com.aiassistant.backend.dto.design.DesignSearchResultDTO;
+import com.aiassistant.backend.dto.design.DesignSummaryDTO;
+import com.aiassistant.backend.exception.ApiException;
+import com.aiassistant.backend.exception.ServiceBusyException;
 import com.aiassistant.backend.mapper.DesignMapper;
+import com.aiassistant.backend.metrics.DesignMetrics;
 import com.aiassistant.backend.model.Design;
+import com.aiassistant.backend.model.DesignComponent;
+import com.aiassistant.backend.model.DesignRequest;
 import com.aiassistant.backend.model.User;
 import com.aiassistant.backend.repository.DesignRepository;
 import com.aiassistant.backend.repository.UserRepository;
+import com.aiassistant.backend.util.DesignCursor;
+import com.aiassistant.backend.util.DesignKeyGenerator;
 import com.aiassistant.backend.util.JsonValidator;
 import com.aiassistant.backend.util.MermaidGenerator;
+import com.aiassistant.backend.util.SearchCursor;
+import com.aiassistant.backend.util.SingleFlight;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class DesignService {
 
     private static final Logger logger = LoggerFactory.getLogger(DesignService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String QUEUED_OUTPUT = "{\"status\":\"Job queued\"}";
 
     private final DesignRepository designRepository;
     private final AIServiceClient aiClient;
@@ -36,154 +63,429 @@ public class DesignService {
     private final JsonValidator jsonValidator;
     private final UserRepository userRepository;
     private final AIOrchestrationService orchestrationService;
+    private final DesignKeyGenerator designKeyGenerator;
+    private final AIResponseCache aiResponseCache;
+    private final TransactionTemplate transactionTemplate;
+    private final DesignMapper designMapper;
+    private final DesignMetrics designMetrics;
+    private final DesignComponentService designComponentService;
+    private final DesignRevisionService designRevisionService;
+    private final ContentBlobService contentBlobService;
+    private final FairJobScheduler fairJobScheduler;
 
-    @Transactional
-    public DesignResponseDTO createDesign(CreateDesignRequestDTO req, String userEmail) throws JsonProcessingException {
-        logger.debug("Creating design for request: {}, user: {}", req, userEmail);
-
-        // Handle user lookup gracefully
-        User user = userRepository.findByEmail(userEmail)
-                .orElseGet(() -> {
-                    try {
-                        return userRepository.findById(Long.parseLong(userEmail))
-                                .orElseThrow(() -> new RuntimeException("User not found for ID: " + userEmail));
-                    } catch (NumberFormatException e) {
-                        logger.error("Invalid user ID format: {}", userEmail);
-                        throw new RuntimeException("Invalid user ID format: " + userEmail);
-                    }
-                });
-
-        if (req.getComplexity() != null && req.getComplexity().equalsIgnoreCase("advanced")) {
-            logger.info("Queuing advanced job for user: {}", userEmail);
-            orchestrationService.queueJob(req, user);
-            return DesignResponseDTO.builder()
-                    .prompt(req.getPrompt())
-                    .rawOutput(Map.of("status", "Job queued")) // Use Map for consistency
-                    .build();
-        }
+    private final SingleFlight<String, AIResponse> aiCalls = new SingleFlight<>();
+    private final SingleFlight<String, DesignResponseDTO> designCreations = new SingleFlight<>();
 
-        String aiResp = null;
+    // The decoded design and the JSON stored for it (written from the decoded design, or read from the cache)
+    private record AIResponse(String json, AIDesignDTO design) {}
+
+    // Not @Transactional: no pooled connection may be held across the multi-second AI call.
+    // The user lookup runs in the repository's own read-only transactions and the save in persistDesign.
+    public DesignResponseDTO createDesign(CreateDesignRequestDTO req, Long userId) throws JsonProcessingException {
+        return createDesign(req, userId, DesignProgressListener.NONE);
+    }
+
+    public DesignResponseDTO createDesign(CreateDesignRequestDTO req, Long userId,
+                                          DesignProgressListener listener) throws JsonProcessingException {
+        logger.debug("Creating design for request: {}, user: {}", req, userId);
+        Timer.Sample sample = designMetrics.start();
+        String outcome = DesignMetrics.ERROR;
         try {
-            // Call AI service and parse response
-            Map<String, Object> rawOutput = aiClient.generateDesign(req);
-            aiResp = objectMapper.writeValueAsString(rawOutput); // Serialize for database
-            logger.debug("AI response: {}", aiResp);
+            // The id comes from a verified token, so a reference is enough; no user query
+            User user = userRepository.getReferenceById(userId);
 
-            // Validate JSON
-            jsonValidator.validateDesign(aiResp);
-
-            // Extract Mermaid diagram
-            String mermaid = null;
-            try {
-                JsonNode jsonNode = objectMapper.readTree(aiResp);
-                mermaid = jsonNode.path("diagrams").path(0).path("content").asText();
-                if (mermaid.isEmpty()) {
-                    logger.warn("No Mermaid diagram found in AI response, generating fallback");
-                    mermaid = mermaidGenerator.generateOrValidateMermaid(null);
-                } else {
-                    mermaid = mermaidGenerator.generateOrValidateMermaid(mermaid);
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to extract Mermaid diagram, generating fallback: {}", e.getMessage());
-                mermaid = mermaidGenerator.generateOrValidateMermaid(null);
+            if (req.getComplexity() != null && req.getComplexity().equalsIgnoreCase("advanced")) {
+                logger.info("Queuing advanced job for user: {}", userId);
+                DesignRequest job = designMetrics.timeStage("queue", req.getComplexity(),
+                        () -> orchestrationService.queueJob(req, user));
+                DesignResponseDTO queued = DesignResponseDTO.builder()
+                        .prompt(req.getPrompt())
+                        .rawOutput(QUEUED_OUTPUT)
+                        .jobId(job.getId())
+                        .status(job.getStatus())
+                        .build();
+                listener.onProgress("queued", queued);
+                outcome = "queued";
+                return queued;
             }
 
-            // Create and save design
-            Design d = new Design();
-            d.setPrompt(req.getPrompt());
-            d.setRawOutput(aiResp); // Store as string for database
-            d.setMermaidCode(mermaid);
-            d.setCreatedAt(Instant.now());
-            d.setUser(user);
+            DesignResponseDTO design = generateDesign(req, user, listener);
+            outcome = DesignMetrics.SUCCESS;
+            return design;
+        } finally {
+            designMetrics.stop(sample, "design.create", req.getComplexity(), outcome);
+        }
+    }
 
-            Design saved = designRepository.save(d);
-            return DesignResponseDTO.builder()
+    // Synchronous generation path, shared by createDesign and DesignJobConsumer
+    public DesignResponseDTO generateDesign(CreateDesignRequestDTO req, User user) {
+        return generateDesign(req, user, DesignProgressListener.NONE);
+    }
+
+    public DesignResponseDTO generateDesign(CreateDesignRequestDTO req, User user, DesignProgressListener listener) {
+        String cacheKey = designKeyGenerator.keyFor(req);
+        listener.onProgress("ai-started", Map.of());
+        AtomicBoolean ranHere = new AtomicBoolean();
+        // A retried submit from the same user joins the running generation instead of writing a second row
+        DesignResponseDTO result = designCreations.execute(user.getId() + ":" + cacheKey, () -> {
+            ranHere.set(true);
+            // Concurrent identical requests from any user share one AI call
+            AIResponse ai = aiCalls.execute(cacheKey,
+                    () -> fetchAIResponse(req, cacheKey, true, FairJobScheduler.INTERACTIVE, user.getId()));
+            publishSections(listener, ai.design());
+            String mermaid = designMetrics.timeStage("mermaid", req.getComplexity(), () -> extractMermaid(ai.design()));
+            listener.onProgress("mermaid", Map.of("mermaidCode", mermaid));
+
+            Design saved = designMetrics.timeStage("persist", req.getComplexity(),
+                    () -> persistDesign(req, user, ai, mermaid));
+            DesignResponseDTO dto = DesignResponseDTO.builder()
                     .id(saved.getId())
                     .prompt(saved.getPrompt())
-                    .rawOutput(rawOutput) // Parsed JSON for frontend
-                    .mermaidCode(saved.getMermaidCode())
+                    .rawOutput(ai.json()) // Raw JSON, written to the response without re-parsing
+                    .mermaidCode(mermaid)
+                    .createdAt(saved.getCreatedAt())
+                    .revision(1)
                     .build();
+            listener.onProgress("persisted", Map.of("id", saved.getId()));
+            return dto;
+        });
+        if (!ranHere.get()) {
+            // Joined another caller's generation: replay its milestones from the shared result
+            if (listener != DesignProgressListener.NONE) {
+                publishSections(listener, parseDesign(result.getRawOutput()));
+            }
+            listener.onProgress("mermaid", Map.of("mermaidCode", result.getMermaidCode()));
+            listener.onProgress("persisted", Map.of("id", result.getId()));
+        }
+        return result;
+    }
+
+    private void publishSections(DesignProgressListener listener, AIDesignDTO design) {
+        if (listener == DesignProgressListener.NONE || design == null) {
+            return;
+        }
+        listener.onProgress("services", design.getServices() != null ? design.getServices() : List.of());
+        listener.onProgress("databases", design.getDatabases() != null ? design.getDatabases() : List.of());
+        listener.onProgress("apis", design.getApis() != null ? design.getApis() : List.of());
+    }
+
+    private AIDesignDTO parseDesign(String json) {
+        try {
+            return objectMapper.readValue(json, AIDesignDTO.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to parse stored AI response: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Short write transaction; the connection is checked out only for the inserts
+    private Design persistDesign(CreateDesignRequestDTO req, User user, AIResponse ai, String mermaid) {
+        Design d = newDesign(req, user, ai.design());
+        return transactionTemplate.execute(status -> {
+            contentBlobService.store(d, ai.json(), mermaid); // identical outputs share one stored copy
+            Design saved = designRepository.save(d);
+            designComponentService.index(saved, ai.design());
+            return saved;
+        });
+    }
+
+    private Design newDesign(CreateDesignRequestDTO req, User user, AIDesignDTO ai) {
+        Design d = new Design();
+        d.setPrompt(req.getPrompt());
+        d.setRawOutputValid(true); // validated in fetchAIResponse (or before it was cached)
+        d.setSearchText(designComponentService.searchText(ai));
+        d.setCreatedAt(Instant.now());
+        d.setUser(user);
+        return d;
+    }
+
+    // A generated design not yet saved; the batch path generates many, then saves them together
+    public record PreparedDesign(CreateDesignRequestDTO request, AIDesignDTO design, String json, String mermaid) {}
+
+    // AI call (shared and cached like the single path) and Mermaid extraction, without persisting
+    public PreparedDesign prepareDesign(CreateDesignRequestDTO req, Long userId) {
+        String cacheKey = designKeyGenerator.keyFor(req);
+        AIResponse ai = aiCalls.execute(cacheKey,
+                () -> fetchAIResponse(req, cacheKey, true, FairJobScheduler.BATCH, userId));
+        String mermaid = designMetrics.timeStage("mermaid", req.getComplexity(), () -> extractMermaid(ai.design()));
+        return new PreparedDesign(req, ai.design(), ai.json(), mermaid);
+    }
+
+    // One transaction for the lot. Blob references are taken first (their native statements flush the session);
+    // the designs and components are only queued until commit, where Hibernate sends them as JDBC batches
+    public List<Design> persistDesigns(List<PreparedDesign> prepared, User user) {
+        return designMetrics.timeStage("persist_batch", null, () -> transactionTemplate.execute(status -> {
+            List<Design> designs = new ArrayList<>(prepared.size());
+            for (PreparedDesign p : prepared) {
+                designs.add(newDesign(p.request(), user, p.design()));
+            }
+            contentBlobService.storeAll(designs, prepared.stream().map(PreparedDesign::json).toList(),
+                    prepared.stream().map(PreparedDesign::mermaid).toList());
+            List<Design> saved = designRepository.saveAll(designs);
+            for (int i = 0; i < saved.size(); i++) {
+                designComponentService.index(saved.get(i), prepared.get(i).design());
+            }
+            return saved;
+        }));
+    }
+
+    // The AI response is decoded once, by Feign, straight into AIDesignDTO; validation and Mermaid extraction
+    // run on that object and the stored JSON is written from it, so no intermediate Map or tree is built.
+    // The AI call waits for the user's turn in the lane; cache hits do not queue
+    private AIResponse fetchAIResponse(CreateDesignRequestDTO req, String cacheKey, boolean useCache,
+                                       String lane, Long userId) {
+        String aiResp = null;
+        try {
+            // Serve repeated prompts from the cache, otherwise call AI service
+            aiResp = useCache ? aiResponseCache.get(cacheKey).orElse(null) : null;
+            if (aiResp != null) {
+                // only validated responses are cached
+                return new AIResponse(aiResp, objectMapper.readValue(aiResp, AIDesignDTO.class));
+            }
+            AIDesignDTO design = fairJobScheduler.call(lane, userId, () -> designMetrics.timeStage("ai_call",
+                    req.getComplexity(), () -> aiClient.generateDesign(req)));
+
+            // Validate before it becomes a cache entry
+            validate(req, design);
+            aiResp = objectMapper.writeValueAsString(design); // Serialize for database
+            logger.debug("AI response: {}", aiResp);
+            if (Boolean.TRUE.equals(design.getDegraded())) {
+                designMetrics.fallback(req.getComplexity());
+                return new AIResponse(aiResp, design); // breaker fallback, never cached
+            }
+            aiResponseCache.put(cacheKey, aiResp);
+            return new AIResponse(aiResp, design);
         } catch (JsonProcessingException e) {
             logger.error("Failed to parse AI response: {}", aiResp != null ? aiResp : "null", e);
             throw new RuntimeException("Invalid AI response format: " + e.getMessage());
+        } catch (ServiceBusyException e) {
+            throw e; // no slot within app.scheduler.maxWaitMs: 503, not a failed generation
         } catch (Exception e) {
             logger.error("Error generating design: {}", aiResp != null ? aiResp : "null", e);
             throw new RuntimeException("Failed to generate design: " + e.getMessage());
         }
     }
 
-    @Transactional(readOnly = true)
-    public DesignResponseDTO getDesign(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private void validate(CreateDesignRequestDTO req, AIDesignDTO design) {
+        try {
+            designMetrics.timeStage("validation", req.getComplexity(), () -> jsonValidator.validateDesign(design));
+        } catch (IllegalArgumentException e) {
+            designMetrics.validationFailure(req.getComplexity());
+            throw e;
+        }
+    }
 
-        Design d = designRepository.findById(id)
-                .filter(design -> design.getUser().equals(user))
-                .orElseThrow(() -> new RuntimeException("Design not found"));
+    private String extractMermaid(AIDesignDTO design) {
+        String mermaid = design.firstDiagramContent();
+        if (mermaid == null || mermaid.isEmpty()) {
+            logger.warn("No Mermaid diagram found in AI response, generating fallback");
+            return mermaidGenerator.generateOrValidateMermaid(null);
+        }
+        return mermaidGenerator.generateOrValidateMermaid(mermaid);
+    }
 
-        Map<String, Object> rawOutput;
+    /**
+     * Generates a new revision of an existing design. Blank overrides reuse the design's current prompt.
+     * The AI call always goes out (a cached answer would repeat the current revision); its result refreshes the cache.
+     */
+    public DesignResponseDTO regenerateDesign(Long designId, CreateDesignRequestDTO overrides, Long userId) {
+        // Outside any transaction, so only the prompt is read (the text columns are LOBs)
+        String currentPrompt = designRepository.findPrompt(designId, userId)
+                .orElseThrow(() -> new RuntimeException("Design not found"));
+        CreateDesignRequestDTO req = overrides != null ? overrides : new CreateDesignRequestDTO();
+        if (req.getPrompt() == null || req.getPrompt().isBlank()) {
+            req.setPrompt(currentPrompt);
+        }
+        Timer.Sample sample = designMetrics.start();
+        String outcome = DesignMetrics.ERROR;
         try {
-            rawOutput = objectMapper.readValue(d.getRawOutput(), Map.class);
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to parse rawOutput for design {}: {}", id, d.getRawOutput(), e);
-            rawOutput = Map.of("error", "Failed to parse rawOutput: " + e.getMessage());
+            String cacheKey = designKeyGenerator.keyFor(req);
+            AIResponse ai = aiCalls.execute("regenerate:" + cacheKey,
+                    () -> fetchAIResponse(req, cacheKey, false, FairJobScheduler.INTERACTIVE, userId));
+            String mermaid = designMetrics.timeStage("mermaid", req.getComplexity(), () -> extractMermaid(ai.design()));
+
+            Design saved = designMetrics.timeStage("persist", req.getComplexity(), () -> transactionTemplate.execute(status -> {
+                Design d = designRepository.findForUpdate(designId, userId)
+                        .orElseThrow(() -> new RuntimeException("Design not found"));
+                int revision = designRevisionService.append(d,
+                        designRevisionService.document(req.getPrompt(), ai.json(), mermaid));
+                contentBlobService.store(d, ai.json(), mermaid);
+                d.setPrompt(req.getPrompt());
+                d.setRawOutputValid(true);
+                d.setRevision(revision);
+                designComponentService.reindex(d, ai.design());
+                return d;
+            }));
+            outcome = DesignMetrics.SUCCESS;
+            return DesignResponseDTO.builder()
+                    .id(saved.getId())
+                    .prompt(saved.getPrompt())
+                    .rawOutput(ai.json())
+                    .mermaidCode(mermaid)
+                    .createdAt(saved.getCreatedAt())
+                    .revision(saved.getRevision())
+                    .build();
+        } finally {
+            designMetrics.stop(sample, "design.regenerate", req.getComplexity(), outcome);
         }
+    }
 
+    @Transactional(readOnly = true)
+    public List<DesignRevisionDTO> listRevisions(Long designId, Long userId) {
+        return designRevisionService.lineage(findOwned(designId, userId));
+    }
+
+    @Transactional(readOnly = true)
+    public DesignResponseDTO getRevision(Long designId, int revision, Long userId) {
+        Design d = findOwned(designId, userId);
+        JsonNode doc = revisionDocument(d, revision);
         return DesignResponseDTO.builder()
                 .id(d.getId())
-                .prompt(d.getPrompt())
-                .rawOutput(rawOutput)
-                .mermaidCode(d.getMermaidCode())
+                .prompt(doc.path("prompt").asText(null))
+                .rawOutput(designRevisionService.rawOutputJson(doc))
+                .mermaidCode(doc.path("mermaidCode").asText(null))
+                .createdAt(d.getCreatedAt())
+                .revision(revision)
                 .build();
     }
 
+    // Patch that turns revision `from` into revision `to` (the newest when null)
     @Transactional(readOnly = true)
-    public List<DesignResponseDTO> listDesigns(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return designRepository.findByUser(user)
-                .stream()
-                .map(d -> {
-                    Map<String, Object> rawOutput;
-                    try {
-                        rawOutput = objectMapper.readValue(d.getRawOutput(), Map.class);
-                    } catch (JsonProcessingException e) {
-                        logger.error("Failed to parse rawOutput for design {}: {}", d.getId(), d.getRawOutput(), e);
-                        rawOutput = Map.of("error", "Failed to parse rawOutput: " + e.getMessage());
-                    }
-                    return DesignResponseDTO.builder()
-                            .id(d.getId())
-                            .prompt(d.getPrompt())
-                            .rawOutput(rawOutput)
-                            .mermaidCode(d.getMermaidCode())
-                            .build();
-                })
-                .toList();
+    public DesignDiffDTO diffRevisions(Long designId, int from, Integer to, Long userId) {
+        Design d = findOwned(designId, userId);
+        int target = to != null ? to : DesignRevisionService.head(d);
+        return DesignDiffDTO.builder()
+                .designId(d.getId())
+                .from(from)
+                .to(target)
+                .patch(designRevisionService.diff(revisionDocument(d, from), revisionDocument(d, target)))
+                .build();
+    }
+
+    private JsonNode revisionDocument(Design d, int revision) {
+        JsonNode doc = designRevisionService.reconstruct(d, revision);
+        if (doc == null) {
+            throw new ApiException("Design " + d.getId() + " has no revision " + revision);
+        }
+        return doc;
+    }
+
+    private Design findOwned(Long designId, Long userId) {
+        return designRepository.findByIdAndUserId(designId, userId)
+                .orElseThrow(() -> new RuntimeException("Design not found"));
+    }
+
+    public Optional<Integer> headRevision(Long designId, Long userId) {
+        return designRepository.findHeadRevision(designId, userId);
+    }
+
+    public String listVersion(Long userId) {
+        return designRepository.findListVersion(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public DesignResponseDTO getDesign(Long id, Long userId) {
+        Design d = designRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new RuntimeException("Design not found"));
+        return toResponse(d);
     }
 
     @Transactional(readOnly = true)
-    public List<DesignResponseDTO> getDesignsByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return designRepository.findByUser(user)
-                .stream()
-                .map(d -> {
-                    Map<String, Object> rawOutput;
-                    try {
-                        rawOutput = objectMapper.readValue(d.getRawOutput(), Map.class);
-                    } catch (JsonProcessingException e) {
-                        logger.error("Failed to parse rawOutput for design {}: {}", d.getId(), d.getRawOutput(), e);
-                        rawOutput = Map.of("error", "Failed to parse rawOutput: " + e.getMessage());
-                    }
-                    return DesignResponseDTO.builder()
-                            .id(d.getId())
-                            .prompt(d.getPrompt())
-                            .rawOutput(rawOutput)
-                            .mermaidCode(d.getMermaidCode())
-                            .build();
-                })
+    public CursorPage<?> listDesigns(Long userId, String cursor, int limit, boolean full) {
+        return pageDesigns(userId, cursor, limit, full);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<?> getDesignsByUser(Long userId, String cursor, int limit, boolean full) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return pageDesigns(userId, cursor, limit, full);
+    }
+
+    // Designs whose components match every given filter; served from design_components, rawOutput is never read
+    @Transactional(readOnly = true)
+    public CursorPage<DesignSummaryDTO> queryDesigns(Long userId, String service, String databaseType, String tech,
+                                                     String method, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, size + 1);
+        DesignCursor after = DesignCursor.decode(cursor);
+        String s = DesignComponent.normalize(service);
+        String db = DesignComponent.normalize(databaseType);
+        String t = DesignComponent.normalize(tech);
+        String m = DesignComponentService.normalizeMethod(method);
+        List<DesignSummaryDTO> rows = after == null
+                ? designRepository.findSummariesByComponents(userId, s, db, t, m, page)
+                : designRepository.findSummariesByComponentsBefore(userId, s, db, t, m, after.createdAt(), after.id(), page);
+        return toPage(rows, size, DesignSummaryDTO::getCreatedAt, DesignSummaryDTO::getId);
+    }
+
+    // Ranked full-text search over prompt, notes, service names and responsibilities
+    @Transactional(readOnly = true)
+    public CursorPage<DesignSearchResultDTO> searchDesigns(Long userId, String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ApiException("Search query is required");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        SearchCursor after = SearchCursor.decode(cursor);
+        List<Object[]> rows = after == null
+                ? designRepository.search(userId, query, size + 1)
+                : designRepository.searchAfter(userId, query, after.rank(), after.id(), size + 1);
+        List<DesignSearchResultDTO> results = rows.stream()
+                .map(r -> new DesignSearchResultDTO(((Number) r[0]).longValue(), (String) r[1], toInstant(r[2]),
+                        ((Number) r[3]).floatValue()))
                 .toList();
+        if (results.size() <= size) {
+            return new CursorPage<>(results, null);
+        }
+        List<DesignSearchResultDTO> page = results.subList(0, size);
+        DesignSearchResultDTO last = page.get(size - 1);
+        return new CursorPage<>(page, new SearchCursor(last.getRank(), last.getId()).encode());
+    }
+
+    // Native rows carry the driver's timestamp type
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof OffsetDateTime odt) {
+            return odt.toInstant();
+        }
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant();
+        }
+        return null;
+    }
+
+    // Summaries by default; rawOutput and mermaidCode are only read when the caller asks for full designs
+    private CursorPage<?> pageDesigns(Long userId, String cursor, int limit, boolean full) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, size + 1); // one extra row tells whether another page exists
+        DesignCursor after = DesignCursor.decode(cursor);
+
+        if (full) {
+            List<Design> rows = after == null
+                    ? designRepository.findPage(userId, page)
+                    : designRepository.findPageBefore(userId, after.createdAt(), after.id(), page);
+            CursorPage<Design> designs = toPage(rows, size, Design::getCreatedAt, Design::getId);
+            return new CursorPage<>(designs.getItems().stream().map(this::toResponse).toList(), designs.getNextCursor());
+        }
+        List<DesignSummaryDTO> rows = after == null
+                ? designRepository.findSummaries(userId, page)
+                : designRepository.findSummariesBefore(userId, after.createdAt(), after.id(), page);
+        return toPage(rows, size, DesignSummaryDTO::getCreatedAt, DesignSummaryDTO::getId);
+    }
+
+    private <T> CursorPage<T> toPage(List<T> rows, int size, Function<T, Instant> createdAt, Function<T, Long> id) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        T last = items.get(size - 1);
+        return new CursorPage<>(items, new DesignCursor(createdAt.apply(last), id.apply(last)).encode());
+    }
+
+    private DesignResponseDTO toResponse(Design d) {
+        return designMapper.toDTO(d);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Service
+public class DesignStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DesignStreamService.class);
+
+    private final DesignService designService;
+    private final AsyncTaskExecutor designStreamExecutor;
+    private final long timeoutMs;
+
+    public DesignStreamService(
+            DesignService designService,
+            @Qualifier("designStreamExecutor") AsyncTaskExecutor designStreamExecutor,
+            @Value("${app.stream.timeoutMs:120000}") long timeoutMs) {
+        this.designService = designService;
+        this.designStreamExecutor = designStreamExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    // The permit is released when the generation ends
+    public SseEmitter stream(CreateDesignRequestDTO req, Long userId, GenerationQuota.Permit permit) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        send(emitter, "accepted", Map.of("prompt", req.getPrompt()));
+        try {
+            designStreamExecutor.execute(() -> {
+                try {
+                    designService.createDesign(req, userId, (event, data) -> send(emitter, event, data));
+                } catch (Exception e) {
+                    logger.error("Streamed design generation failed: {}", e.getMessage(), e);
+                    send(emitter, "error", Map.of("message", String.valueOf(e.getMessage())));
+                } finally {
+                    permit.close();
+                    emitter.complete();
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; keep generating so the design is still saved
+            logger.debug("Dropping '{}' event for closed stream: {}", event, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.dto.design.DesignQueueDTO;
+import com.aiassistant.backend.exception.ServiceBusyException;
+import com.aiassistant.backend.util.FairScheduler;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Decides whose AI call runs next on this node. Interactive requests, bulk items and queued advanced jobs are
+ * separate lanes sharing app.scheduler.slots by weight, and inside each lane users take turns, so a user with a
+ * deep backlog delays others by at most one call per turn. A thread that already holds a slot (a running job)
+ * does not queue again.
+ */
+@Service
+public class FairJobScheduler {
+
+    public static final String INTERACTIVE = "interactive";
+    public static final String BATCH = "batch";
+    public static final String ADVANCED = "advanced";
+
+    private static final Logger logger = LoggerFactory.getLogger(FairJobScheduler.class);
+
+    private record WaitStats(LongAdder grants, LongAdder waitNanos) {}
+
+    private final FairScheduler scheduler;
+    private final AsyncTaskExecutor designJobExecutor;
+    private final MeterRegistry registry;
+    private final long maxWaitMs;
+    private final ThreadLocal<FairScheduler.Ticket> holding = new ThreadLocal<>();
+    // Recent waits per user and lane, for the user's own queue view; per-user meter tags would be unbounded
+    private final Cache<String, WaitStats> userWaits = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public FairJobScheduler(
+            @Qualifier("designJobExecutor") AsyncTaskExecutor designJobExecutor,
+            MeterRegistry registry,
+            @Value("${app.scheduler.slots:50}") int slots,
+            @Value("${app.scheduler.maxWaitMs:30000}") long maxWaitMs,
+            @Value("${app.scheduler.interactive.weight:8}") int interactiveWeight,
+            @Value("${app.scheduler.interactive.maxRunning:50}") int interactiveMaxRunning,
+            @Value("${app.scheduler.batch.weight:3}") int batchWeight,
+            @Value("${app.scheduler.batch.maxRunning:24}") int batchMaxRunning,
+            @Value("${app.scheduler.advanced.weight:1}") int advancedWeight,
+            @Value("${app.scheduler.advanced.maxRunning:3}") int advancedMaxRunning) {
+        this.designJobExecutor = designJobExecutor;
+        this.registry = registry;
+        this.maxWaitMs = maxWaitMs;
+        List<FairScheduler.Lane> lanes = List.of(
+                new FairScheduler.Lane(INTERACTIVE, interactiveWeight, interactiveMaxRunning),
+                new FairScheduler.Lane(BATCH, batchWeight, batchMaxRunning),
+                new FairScheduler.Lane(ADVANCED, advancedWeight, advancedMaxRunning));
+        this.scheduler = new FairScheduler(lanes, slots, System::nanoTime, this::recordWait);
+        for (FairScheduler.Lane lane : lanes) {
+            Gauge.builder("design.scheduler.queued", scheduler, s -> s.queued(lane.name()))
+                    .tag("lane", lane.name())
+                    .register(registry);
+            Gauge.builder("design.scheduler.running", scheduler, s -> s.running(lane.name()))
+                    .tag("lane", lane.name())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Runs {@code work} on the calling thread once it is this user's turn in the lane.
+     * Gives up with 503 after app.scheduler.maxWaitMs.
+     */
+    public <T> T call(String lane, Long userId, Supplier<T> work) {
+        if (holding.get() != null) {
+            return work.get();
+        }
+        CompletableFuture<Void> turn = new CompletableFuture<>();
+        FairScheduler.Ticket ticket = scheduler.enqueue(lane, userId, t -> turn.complete(null));
+        try {
+            turn.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (scheduler.cancel(ticket)) {
+                throw new ServiceBusyException("Design generation is at capacity, retry shortly", 5);
+            }
+            // Granted just as the wait ran out: take the turn
+        } catch (InterruptedException e) {
+            if (!scheduler.cancel(ticket)) {
+                scheduler.release(ticket);
+            }
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a generation slot", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e); // the turn is only ever completed normally
+        }
+        return runHolding(ticket, work);
+    }
+
+    // Queues a job that runs on the job executor when its turn comes; AI calls inside it use the job's slot
+    public void submit(String lane, Long userId, Runnable job) {
+        scheduler.enqueue(lane, userId, ticket -> {
+            try {
+                designJobExecutor.execute(() -> {
+                    try {
+                        runHolding(ticket, () -> {
+                            job.run();
+                            return null;
+                        });
+                    } catch (RuntimeException e) {
+                        logger.error("Scheduled {} job for user {} failed: {}", lane, userId, e.getMessage(), e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                scheduler.release(ticket);
+                logger.error("Job executor rejected a {} job for user {}", lane, userId);
+            }
+        });
+    }
+
+    public List<DesignQueueDTO> queueFor(Long userId) {
+        long now = System.nanoTime();
+        Map<String, FairScheduler.UserQueue> queued = new HashMap<>();
+        for (FairScheduler.UserQueue q : scheduler.queuedFor(userId)) {
+            queued.put(q.lane(), q);
+        }
+        return List.of(INTERACTIVE, BATCH, ADVANCED).stream()
+                .map(lane -> {
+                    FairScheduler.UserQueue q = queued.get(lane);
+                    WaitStats stats = userWaits.getIfPresent(lane + ":" + userId);
+                    long grants = stats != null ? stats.grants().sum() : 0;
+                    return DesignQueueDTO.builder()
+                            .lane(lane)
+                            .queued(q != null ? q.queued() : 0)
+                            .oldestWaitMs(q != null ? TimeUnit.NANOSECONDS.toMillis(now - q.oldestEnqueuedAtNanos()) : null)
+                            .started(grants)
+                            .meanWaitMs(grants > 0 ? TimeUnit.NANOSECONDS.toMillis(stats.waitNanos().sum() / grants) : null)
+                            .build();
+                })
+                .toList();
+    }
+
+    private <T> T runHolding(FairScheduler.Ticket ticket, Supplier<T> work) {
+        holding.set(ticket);
+        try {
+            return work.get();
+        } finally {
+            holding.remove();
+            scheduler.release(ticket);
+        }
+    }
+
+    // design.scheduler.wait{lane}: time from queueing to holding a slot
+    private void recordWait(String lane, Object user, long waitNanos) {
+        Timer.builder("design.scheduler.wait")
+                .tag("lane", lane)
+                .register(registry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+        WaitStats stats = userWaits.get(lane + ":" + user, k -> new WaitStats(new LongAdder(), new LongAdder()));
+        stats.grants().increment();
+        stats.waitNanos().add(waitNanos);
+    }
+}
@@ -0,0 +1,176 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.exception.ApiException;
+import com.aiassistant.backend.exception.TooManyRequestsException;
+import com.aiassistant.backend.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user limits on the AI generation path, set by the user's plan: a token bucket on designs started
+ * (one token per design, so a batch costs its size) and a cap on generations running at once.
+ * Rejections are 429 with Retry-After. Concurrency is counted per node; rates follow app.quota.store.
+ */
+@Service
+public class GenerationQuota {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerationQuota.class);
+    private static final long CONCURRENCY_RETRY_SECONDS = 5; // about one generation
+
+    public record Plan(String name, int perMinute, int burst, int maxConcurrent) {
+        public long intervalNanos() {
+            return TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+        }
+    }
+
+    private final RateLimitStore store;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final Map<String, Plan> plans;
+
+    private final ConcurrentHashMap<Long, Integer> running = new ConcurrentHashMap<>();
+    private final AtomicInteger runningTotal = new AtomicInteger();
+
+    public GenerationQuota(
+            RateLimitStore store,
+            MeterRegistry registry,
+            @Value("${app.quota.enabled:true}") boolean enabled,
+            @Value("${app.quota.free.perMinute:10}") int freePerMinute,
+            @Value("${app.quota.free.burst:20}") int freeBurst,
+            @Value("${app.quota.free.maxConcurrent:2}") int freeMaxConcurrent,
+            @Value("${app.quota.pro.perMinute:120}") int proPerMinute,
+            @Value("${app.quota.pro.burst:500}") int proBurst,
+            @Value("${app.quota.pro.maxConcurrent:8}") int proMaxConcurrent) {
+        this.store = store;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.plans = Map.of(
+                User.PLAN_FREE, new Plan(User.PLAN_FREE, freePerMinute, freeBurst, freeMaxConcurrent),
+                User.PLAN_PRO, new Plan(User.PLAN_PRO, proPerMinute, proBurst, proMaxConcurrent));
+        Gauge.builder("design.quota.running", runningTotal, AtomicInteger::get)
+                .description("Generations holding a quota slot on this node")
+                .register(registry);
+    }
+
+    // Tokens minted before plans existed, and unknown plans, get the free plan
+    public Plan plan(String name) {
+        return plans.getOrDefault(name, plans.get(User.PLAN_FREE));
+    }
+
+    public Permit acquire(Long userId, String plan, int designs) {
+        return acquire(userId, plan, designs, 1);
+    }
+
+    /**
+     * Takes {@code slots} of the user's concurrent generations and {@code designs} tokens, or neither.
+     * Close the permit when the generation finishes; closing more than once is harmless.
+     */
+    public Permit acquire(Long userId, String planName, int designs, int slots) {
+        if (!enabled) {
+            return new Permit(userId, 0, null, 0);
+        }
+        Plan plan = plan(planName);
+        if (designs > plan.burst()) {
+            throw new ApiException("The " + plan.name() + " plan starts at most " + plan.burst() + " designs at once");
+        }
+        if (!takeSlots(userId, slots, plan.maxConcurrent())) {
+            throttled(plan, "concurrency", userId);
+            throw new TooManyRequestsException("Too many designs generating at once, retry when one finishes",
+                    CONCURRENCY_RETRY_SECONDS);
+        }
+        Permit permit = new Permit(userId, slots, plan, designs);
+        long waitNanos = store.tryTake(bucketKey(plan, userId), plan, designs);
+        if (waitNanos > 0) {
+            permit.close();
+            throttled(plan, "rate", userId);
+            throw new TooManyRequestsException("Design rate limit reached, retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        registry.counter("design.quota.requests", "plan", plan.name(), "outcome", "allowed").increment();
+        return permit;
+    }
+
+    /** Runs one generation under a single-design permit, released however {@code work} ends. */
+    @SuppressWarnings("try") // the permit is held, never referenced
+    public <T, E extends Exception> T generate(Long userId, String plan, Generation<T, E> work) throws E {
+        try (Permit permit = acquire(userId, plan, 1)) {
+            return work.run();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Generation<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    // compute() locks only the user's bin, so users never contend with each other
+    private boolean takeSlots(Long userId, int slots, int max) {
+        boolean[] taken = {false};
+        running.compute(userId, (id, n) -> {
+            int current = n == null ? 0 : n;
+            if (current + slots > max) {
+                return n;
+            }
+            taken[0] = true;
+            return current + slots;
+        });
+        if (taken[0]) {
+            runningTotal.addAndGet(slots);
+        }
+        return taken[0];
+    }
+
+    private void release(Long userId, int slots) {
+        running.computeIfPresent(userId, (id, n) -> n > slots ? n - slots : null);
+        runningTotal.addAndGet(-slots);
+    }
+
+    private static String bucketKey(Plan plan, Long userId) {
+        return "gen:" + plan.name() + ":" + userId;
+    }
+
+    private void throttled(Plan plan, String reason, Long userId) {
+        registry.counter("design.quota.requests", "plan", plan.name(), "outcome", "throttled_" + reason).increment();
+        logger.debug("Throttled user {} on the {} plan ({})", userId, plan.name(), reason);
+    }
+
+    public final class Permit implements AutoCloseable {
+        private final Long userId;
+        private final int slots;
+        private final Plan plan;
+        private final AtomicInteger unused; // designs paid for and not yet refunded
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(Long userId, int slots, Plan plan, int designs) {
+            this.userId = userId;
+            this.slots = slots;
+            this.plan = plan;
+            this.unused = new AtomicInteger(designs);
+        }
+
+        // Gives back the tokens of designs that were never started, up to what the permit took
+        public void refund(int designs) {
+            int refunded = Math.min(designs, unused.getAndUpdate(n -> Math.max(0, n - Math.max(0, designs))));
+            if (plan != null && refunded > 0) {
+                store.refund(bucketKey(plan, userId), plan, refunded);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (slots > 0 && closed.compareAndSet(false, true)) {
+                release(userId, slots);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Buckets in a Caffeine map (striped, no global lock); each take is one CAS on its bucket. Limits apply per node
+@Component
+@ConditionalOnProperty(name = "app.quota.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    // An evicted bucket comes back full, which is where an idle one would have refilled to anyway
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    @Override
+    public long tryTake(String key, GenerationQuota.Plan plan, int tokens) {
+        long now = System.nanoTime();
+        return buckets.get(key, k -> new TokenBucket(plan.intervalNanos(), plan.burst(), now)).tryTake(tokens, now);
+    }
+
+    @Override
+    public void refund(String key, GenerationQuota.Plan plan, int tokens) {
+        TokenBucket bucket = buckets.getIfPresent(key); // an evicted bucket is full already
+        if (bucket != null) {
+            bucket.refund(tokens);
+        }
+    }
+}
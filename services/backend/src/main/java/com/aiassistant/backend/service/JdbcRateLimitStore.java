@@ -0,0 +1,66 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.repository.RateLimitBucketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Buckets in rate_limit_buckets, so every node draws from the same one; one upsert per take
+@Component
+@ConditionalOnProperty(name = "app.quota.store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcRateLimitStore.class);
+
+    private final RateLimitBucketRepository repository;
+    private final Counter failedOpen;
+
+    public JdbcRateLimitStore(RateLimitBucketRepository repository, MeterRegistry registry) {
+        this.repository = repository;
+        this.failedOpen = Counter.builder("design.quota.store.failures")
+                .description("Rate limit checks allowed because the bucket table could not be reached")
+                .register(registry);
+    }
+
+    @Override
+    public long tryTake(String key, GenerationQuota.Plan plan, int tokens) {
+        long intervalMicros = TimeUnit.NANOSECONDS.toMicros(plan.intervalNanos());
+        try {
+            long waitMicros = repository.tryTake(key, intervalMicros * tokens, intervalMicros * plan.burst());
+            return TimeUnit.MICROSECONDS.toNanos(waitMicros);
+        } catch (RuntimeException e) {
+            // Fail open: an unreachable database already stops generation, quotas should not add to the outage
+            failedOpen.increment();
+            logger.warn("Rate limit check for {} failed, allowing: {}", key, e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public void refund(String key, GenerationQuota.Plan plan, int tokens) {
+        try {
+            repository.refund(key, TimeUnit.NANOSECONDS.toMicros(plan.intervalNanos()) * tokens);
+        } catch (RuntimeException e) {
+            logger.warn("Rate limit refund for {} failed: {}", key, e.getMessage());
+        }
+    }
+
+    // Full buckets carry no state; dropping them keeps the table to users who generated recently
+    @Scheduled(fixedDelayString = "${app.quota.cleanupMs:600000}")
+    public void purgeFull() {
+        try {
+            int deleted = repository.deleteFull();
+            if (deleted > 0) {
+                logger.debug("Purged {} full rate limit buckets", deleted);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to purge rate limit buckets: {}", e.getMessage());
+        }
+    }
+}
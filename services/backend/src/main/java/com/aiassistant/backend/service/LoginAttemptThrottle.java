@@ -0,0 +1,62 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fixed-window failed-login counters per account and per client IP, checked before any hashing is queued
+@Service
+public class LoginAttemptThrottle {
+
+    private final Cache<String, AtomicInteger> attempts;
+    private final int maxPerAccount;
+    private final int maxPerIp;
+    private final long windowSeconds;
+
+    public LoginAttemptThrottle(
+            @Value("${app.auth.throttle.maxPerAccount:10}") int maxPerAccount,
+            @Value("${app.auth.throttle.maxPerIp:50}") int maxPerIp,
+            @Value("${app.auth.throttle.windowSeconds:300}") long windowSeconds) {
+        this.maxPerAccount = maxPerAccount;
+        this.maxPerIp = maxPerIp;
+        this.windowSeconds = windowSeconds;
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+    }
+
+    public void check(String email, String clientIp) {
+        if (count("account:" + normalize(email)) >= maxPerAccount || count("ip:" + clientIp) >= maxPerIp) {
+            throw new TooManyRequestsException("Too many attempts, please try again later", windowSeconds);
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        increment("account:" + normalize(email));
+        increment("ip:" + clientIp);
+    }
+
+    public void reset(String email) {
+        attempts.invalidate("account:" + normalize(email));
+    }
+
+    private int count(String key) {
+        AtomicInteger count = attempts.getIfPresent(key);
+        return count == null ? 0 : count.get();
+    }
+
+    private void increment(String key) {
+        attempts.get(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,13 @@
+package com.aiassistant.backend.service;
+
+// Holds the token buckets behind GenerationQuota: per node in memory, or shared by all nodes through Postgres
+public interface RateLimitStore {
+
+    /**
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they would be available
+     */
+    long tryTake(String key, GenerationQuota.Plan plan, int tokens);
+
+    // Returns tokens that were taken but never used
+    void refund(String key, GenerationQuota.Plan plan, int tokens);
+}
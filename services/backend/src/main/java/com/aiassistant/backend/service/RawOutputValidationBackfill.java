@@ -0,0 +1,49 @@
+package com.aiassistant.backend.service;
+
+import com.aiassistant.backend.mapper.DesignMapper;
+import com.aiassistant.backend.repository.DesignRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Sets rawOutputValid on designs written before the flag existed, so reads pass their rawOutput through
+ * (or report it as unparseable) without scanning it each time. Setting the flag twice is harmless, so it
+ * can run on every node.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.designs.validationBackfill.enabled", havingValue = "true", matchIfMissing = true)
+public class RawOutputValidationBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(RawOutputValidationBackfill.class);
+
+    private final DesignRepository designRepository;
+    private final DesignMapper designMapper;
+    private final DesignBackfillRunner backfillRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Map<Boolean, Integer> checked = backfillRunner.run("rawOutput check",
+                designRepository::findIdsWithUncheckedRawOutput, this::checkDesign);
+        int invalid = checked.getOrDefault(false, 0);
+        int total = checked.getOrDefault(true, 0) + invalid;
+        if (total > 0) {
+            logger.info("Flagged rawOutput of {} older designs ({} unparseable)", total, invalid);
+        }
+    }
+
+    private Boolean checkDesign(Long id) {
+        return designRepository.findById(id).map(d -> {
+            boolean valid = d.getRawOutput() != null && designMapper.isSingleJsonValue(d.getRawOutput());
+            designRepository.setRawOutputValid(id, valid);
+            return valid;
+        }).orElse(null);
+    }
+}
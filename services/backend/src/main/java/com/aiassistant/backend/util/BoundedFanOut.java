@@ -0,0 +1,65 @@
+package com.aiassistant.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Runs a task for every item with at most {@code limit} running at once. Each of the {@code limit} lanes is one
+ * executor task that takes the next unclaimed item until none are left, so nothing queues behind a full pool
+ * and lanes never wait on each other.
+ */
+public final class BoundedFanOut {
+
+    private BoundedFanOut() {
+    }
+
+    @FunctionalInterface
+    public interface Callback<T, R> {
+        // Exactly one of result and error is set
+        void onDone(int index, T item, R result, Throwable error);
+    }
+
+    /**
+     * @param stop checked before each item is claimed; once true, unclaimed items are skipped
+     * @return completes when every claimed item has finished and its callback has returned
+     * @throws RejectedExecutionException if the executor accepts no lane at all
+     */
+    public static <T, R> CompletableFuture<Void> run(List<T> items, int limit, Executor executor,
+                                                    Function<T, R> task, Callback<T, R> callback,
+                                                    BooleanSupplier stop) {
+        AtomicInteger next = new AtomicInteger();
+        int lanes = Math.max(1, Math.min(limit, items.size()));
+        List<CompletableFuture<Void>> running = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            Runnable work = () -> {
+                int i;
+                while (!stop.getAsBoolean() && (i = next.getAndIncrement()) < items.size()) {
+                    T item = items.get(i);
+                    R result;
+                    try {
+                        result = task.apply(item);
+                    } catch (RuntimeException | Error e) {
+                        callback.onDone(i, item, null, e);
+                        continue;
+                    }
+                    callback.onDone(i, item, result, null);
+                }
+            };
+            try {
+                running.add(CompletableFuture.runAsync(work, executor));
+            } catch (RejectedExecutionException e) {
+                if (running.isEmpty()) {
+                    throw e;
+                }
+                break; // a saturated executor just means fewer lanes; the started ones drain every item
+            }
+        }
+        return CompletableFuture.allOf(running.toArray(CompletableFuture[]::new));
+    }
+}
@@ -0,0 +1,68 @@
+package com.aiassistant.backend.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * ETags for design resources: the design id and revision plus an HMAC binding them to the caller.
+ * A tag this node can verify was issued for a resource the user could read, and a revision never changes once
+ * written, so a matching If-None-Match on a revision is answered without touching the database.
+ * Tags are weak because Tomcat does not gzip responses carrying a strong ETag; revalidation uses weak comparison anyway.
+ */
+@Component
+public class DesignETags {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public DesignETags(@Value("${app.etag.secret:${app.jwt.secret}}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String forRevision(Long userId, Long designId, int revision) {
+        String id = designId + "." + revision;
+        return "W/\"" + id + "." + sign(userId + ":design:" + id) + "\"";
+    }
+
+    // A list page changes when the user's designs change; version is DesignRepository.findListVersion
+    public String forList(Long userId, String query, String version) {
+        return "W/\"list." + sign(userId + ":list:" + query + ":" + version) + "\"";
+    }
+
+    // If-None-Match may list several tags; weak comparison, as RFC 9110 requires for If-None-Match.
+    // "*" is not honoured: revision checks never look the resource up, so they could not tell it exists
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (opaque(candidate.trim()).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22); // 128 bits
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign ETag", e);
+        }
+    }
+}
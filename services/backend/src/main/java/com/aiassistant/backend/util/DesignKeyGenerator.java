@@ -0,0 +1,51 @@
+package com.aiassistant.backend.util;
+
+import com.aiassistant.backend.dto.design.CreateDesignRequestDTO;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+@Component
+public class DesignKeyGenerator {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // SHA-256 of the normalized request, so trivially different prompts share one key
+    public String keyFor(CreateDesignRequestDTO req) {
+        StringBuilder canonical = new StringBuilder();
+        canonical.append("prompt=").append(normalize(req.getPrompt())).append('\n');
+        canonical.append("style=").append(normalize(req.getStyle())).append('\n');
+        canonical.append("complexity=").append(normalize(req.getComplexity())).append('\n');
+        canonical.append("services=");
+        List<String> services = req.getServices();
+        if (services != null) {
+            services.stream()
+                    .map(this::normalize)
+                    .filter(s -> !s.isEmpty())
+                    .forEach(s -> canonical.append(s).append(','));
+        }
+        return sha256(canonical.toString());
+    }
+
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
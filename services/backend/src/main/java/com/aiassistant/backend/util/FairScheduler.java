@@ -0,0 +1,266 @@
+package com.aiassistant.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out a fixed number of slots to queued tickets, fairly at two levels. Lanes share the slots in proportion
+ * to their weights (each capped at maxRunning), and within a lane every user with queued tickets gets an equal
+ * share, in FIFO order per user. Both levels are start-time fair queuing with virtual time: a lane or user
+ * that was idle starts at the current virtual time, so idleness earns no credit and a backlog cannot starve anyone.
+ * Grant callbacks run outside the lock, on the thread that freed or asked for the slot.
+ */
+public final class FairScheduler {
+
+    public record Lane(String name, int weight, int maxRunning) {}
+
+    public record UserQueue(String lane, int queued, long oldestEnqueuedAtNanos) {}
+
+    @FunctionalInterface
+    public interface GrantListener {
+        void onGrant(String lane, Object user, long waitNanos);
+    }
+
+    private static final long STRIDE = 1L << 20;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, LaneState> lanes = new LinkedHashMap<>();
+    private final int slots;
+    private final LongSupplier clock;
+    private final GrantListener listener;
+    private int running;
+    private long virtualTime; // pass of the lane served last
+    private long sequence;
+
+    public FairScheduler(List<Lane> lanes, int slots, LongSupplier clock, GrantListener listener) {
+        for (Lane lane : lanes) {
+            this.lanes.put(lane.name(), new LaneState(lane));
+        }
+        this.slots = Math.max(1, slots);
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    public final class Ticket {
+        private final LaneState lane;
+        private final Object user;
+        private final Consumer<Ticket> onGrant;
+        private final long enqueuedAt;
+        private long grantedAt;
+        private boolean queued = true; // guarded by lock
+        private boolean granted;
+        private boolean released;
+
+        private Ticket(LaneState lane, Object user, Consumer<Ticket> onGrant, long enqueuedAt) {
+            this.lane = lane;
+            this.user = user;
+            this.onGrant = onGrant;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        public String lane() {
+            return lane.lane.name();
+        }
+
+        public Object user() {
+            return user;
+        }
+    }
+
+    private static final class UserState {
+        private final Object user;
+        private final ArrayDeque<Ticket> tickets = new ArrayDeque<>();
+        private long pass;
+        private long seq;
+
+        private UserState(Object user) {
+            this.user = user;
+        }
+    }
+
+    private final class LaneState {
+        private final Lane lane;
+        private final long stride;
+        private final Map<Object, UserState> users = new HashMap<>();
+        private final PriorityQueue<UserState> active = new PriorityQueue<>(
+                Comparator.comparingLong((UserState u) -> u.pass).thenComparingLong(u -> u.seq));
+        private long pass;
+        private long virtualTime; // pass of the user served last
+        private int queued;
+        private int running;
+
+        private LaneState(Lane lane) {
+            this.lane = lane;
+            this.stride = STRIDE / Math.max(1, lane.weight());
+        }
+
+        private boolean eligible() {
+            return queued > 0 && running < lane.maxRunning();
+        }
+    }
+
+    /**
+     * Queues a ticket; {@code onGrant} is called once it holds a slot (possibly before this returns).
+     * Whoever holds the ticket must {@link #release} it when done.
+     */
+    public Ticket enqueue(String laneName, Object user, Consumer<Ticket> onGrant) {
+        List<Ticket> granted;
+        Ticket ticket;
+        lock.lock();
+        try {
+            LaneState lane = lanes.get(laneName);
+            if (lane == null) {
+                throw new IllegalArgumentException("Unknown lane: " + laneName);
+            }
+            ticket = new Ticket(lane, user, onGrant, clock.getAsLong());
+            if (lane.queued == 0) {
+                lane.pass = Math.max(lane.pass, virtualTime);
+            }
+            UserState u = lane.users.computeIfAbsent(user, UserState::new);
+            if (u.tickets.isEmpty()) {
+                u.pass = Math.max(u.pass, lane.virtualTime);
+                u.seq = sequence++;
+                lane.active.add(u);
+            }
+            u.tickets.add(ticket);
+            lane.queued++;
+            granted = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        notify(granted);
+        return ticket;
+    }
+
+    // True if the ticket was still queued and is now gone; false if it was already granted
+    public boolean cancel(Ticket ticket) {
+        lock.lock();
+        try {
+            if (!ticket.queued) {
+                return false;
+            }
+            LaneState lane = ticket.lane;
+            UserState u = lane.users.get(ticket.user);
+            u.tickets.remove(ticket);
+            if (u.tickets.isEmpty()) {
+                lane.active.remove(u);
+                lane.users.remove(ticket.user);
+            }
+            ticket.queued = false;
+            lane.queued--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Ticket ticket) {
+        List<Ticket> granted;
+        lock.lock();
+        try {
+            if (!ticket.granted || ticket.released) {
+                return;
+            }
+            ticket.released = true;
+            ticket.lane.running--;
+            running--;
+            granted = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        notify(granted);
+    }
+
+    public int queued(String lane) {
+        lock.lock();
+        try {
+            return lanes.get(lane).queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int running(String lane) {
+        lock.lock();
+        try {
+            return lanes.get(lane).running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<UserQueue> queuedFor(Object user) {
+        lock.lock();
+        try {
+            List<UserQueue> result = new ArrayList<>();
+            for (LaneState lane : lanes.values()) {
+                UserState u = lane.users.get(user);
+                if (u != null && !u.tickets.isEmpty()) {
+                    result.add(new UserQueue(lane.lane.name(), u.tickets.size(), u.tickets.peek().enqueuedAt));
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Fills free slots: the eligible lane with the lowest pass, then that lane's user with the lowest pass
+    private List<Ticket> dispatch() {
+        List<Ticket> granted = null;
+        while (running < slots) {
+            LaneState lane = null;
+            for (LaneState l : lanes.values()) {
+                if (l.eligible() && (lane == null || l.pass < lane.pass)) {
+                    lane = l;
+                }
+            }
+            if (lane == null) {
+                break;
+            }
+            virtualTime = lane.pass;
+            lane.pass += lane.stride;
+
+            UserState u = lane.active.poll();
+            Ticket ticket = u.tickets.poll();
+            lane.virtualTime = u.pass;
+            u.pass += STRIDE;
+            if (u.tickets.isEmpty()) {
+                lane.users.remove(u.user); // comes back at the lane's virtual time
+            } else {
+                lane.active.add(u);
+            }
+
+            lane.queued--;
+            lane.running++;
+            running++;
+            ticket.queued = false;
+            ticket.granted = true;
+            ticket.grantedAt = clock.getAsLong();
+            if (granted == null) {
+                granted = new ArrayList<>();
+            }
+            granted.add(ticket);
+        }
+        return granted;
+    }
+
+    private void notify(List<Ticket> granted) {
+        if (granted == null) {
+            return;
+        }
+        for (Ticket ticket : granted) {
+            listener.onGrant(ticket.lane(), ticket.user, ticket.grantedAt - ticket.enqueuedAt);
+            ticket.onGrant.accept(ticket);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.aiassistant.backend.util;
 
+import com.aiassistant.backend.dto.design.AIDesignDTO;
+import com.aiassistant.backend.dto.design.DiagramDTO;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -27,4 +29,18 @@ public class JsonValidator {
             throw new IllegalArgumentException("Invalid JSON format: " + e.getMessage());
         }
     }
+
+    // Same checks on an already decoded design, without a tree parse: required keys present (null allowed)
+    public void validateDesign(AIDesignDTO design) {
+        if (design == null || !design.has("services") || !design.has("databases") || !design.has("apis")
+                || !design.has("diagrams") || !design.has("notes")) {
+            throw new IllegalArgumentException("Missing required fields in AI response");
+        }
+        if (design.getDiagrams() != null && !design.getDiagrams().isEmpty()) {
+            DiagramDTO firstDiagram = design.getDiagrams().get(0);
+            if (firstDiagram == null || !firstDiagram.has("type") || !firstDiagram.has("content")) {
+                throw new IllegalArgumentException("Invalid diagram format");
+            }
+        }
+    }
 }
\ No newline at end of file
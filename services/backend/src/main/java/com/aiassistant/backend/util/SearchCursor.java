@@ -0,0 +1,32 @@
+package com.aiassistant.backend.util;
+
+import com.aiassistant.backend.exception.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor for ranked search results: (rank, id) of the last row returned
+public record SearchCursor(float rank, Long id) {
+
+    public String encode() {
+        String raw = rank + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            float rank = Float.parseFloat(raw.substring(0, sep));
+            if (!Float.isFinite(rank)) { // NaN and infinities parse, but are never ranks we issued
+                throw new NumberFormatException(raw);
+            }
+            return new SearchCursor(rank, Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new ApiException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.aiassistant.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket held as a single "theoretical arrival time" (GCRA): each token pushes it forward by one refill
+ * interval, and a take is allowed while it stays within burst intervals of now. One CAS per attempt, no lock,
+ * and an empty bucket tells the caller exactly how long to wait.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;  // refill time of one token
+    private final long toleranceNanos; // burst capacity, as time
+    private final AtomicLong arrival;
+
+    public TokenBucket(long intervalNanos, int burst, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * burst;
+        this.arrival = new AtomicLong(nowNanos); // starts full
+    }
+
+    /**
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they would be available;
+     *         Long.MAX_VALUE if more tokens than the burst are asked for, since they never fit
+     */
+    public long tryTake(int tokens, long nowNanos) {
+        long cost = intervalNanos * tokens;
+        if (cost > toleranceNanos) {
+            return Long.MAX_VALUE;
+        }
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, nowNanos) + cost;
+            long ahead = next - nowNanos;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back tokens taken but not used. A bucket already refilled past them stays full: takes start from now
+    public void refund(int tokens) {
+        arrival.addAndGet(-intervalNanos * tokens);
+    }
+}
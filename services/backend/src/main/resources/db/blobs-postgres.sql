@@ -0,0 +1,3 @@
+-- content_blobs.content is already gzip'd (CompressedTextConverter): keep it out of line but skip
+-- TOAST's own compression attempt. Idempotent, applied on every start like search-postgres.sql.
+ALTER TABLE content_blobs ALTER COLUMN content SET STORAGE EXTERNAL;
@@ -0,0 +1,6 @@
+-- designs.id moved from an identity column to the pooled designs_seq, where Hibernate hands out the 50 ids
+-- above each sequence value it fetches. Lift the sequence to the highest existing id; once new rows come
+-- from the sequence it stays at or above every id, so this is a no-op on later starts.
+SELECT setval('designs_seq', m.max_id)
+FROM (SELECT max(id) AS max_id FROM designs) m
+WHERE m.max_id >= (SELECT last_value FROM designs_seq);
@@ -0,0 +1,9 @@
+-- Full-text index over designs. Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization)
+-- and is idempotent, so it is applied on every start. Requires PostgreSQL 12+ for generated columns.
+ALTER TABLE designs ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(prompt, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(search_text, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_designs_search ON designs USING GIN (search_vector);
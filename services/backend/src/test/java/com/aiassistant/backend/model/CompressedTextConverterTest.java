@@ -0,0 +1,52 @@
+package com.aiassistant.backend.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    void roundTrips() {
+        for (String text : new String[]{"", "x", "{\"services\":[]}", "flowchart LR\n  A[\"\u00dcn\u00efc\u00f8d\u00e9 \u2713 \u670d\u52a1\"] --> B"}) {
+            assertEquals(text, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(text)));
+        }
+    }
+
+    @Test
+    void nullStaysNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void compressesRepetitiveText() {
+        String json = "{\"name\":\"order-service\",\"techSuggestions\":[\"Kafka\",\"Spring Boot\"]},".repeat(200);
+        byte[] stored = converter.convertToDatabaseColumn(json);
+        assertTrue(stored.length < json.length() / 10, "stored " + stored.length + " bytes");
+        assertEquals(json, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void readsUncompressedBytesAsPlainText() {
+        assertEquals("plain \u2713", converter.convertToEntityAttribute("plain \u2713".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("", converter.convertToEntityAttribute(new byte[0]));
+        assertEquals("\u001f", converter.convertToEntityAttribute(new byte[]{0x1f}));
+    }
+
+    @Test
+    void truncatedGzipFailsInsteadOfReturningPartialText() {
+        byte[] stored = converter.convertToDatabaseColumn("x".repeat(10_000));
+        byte[] truncated = Arrays.copyOf(stored, stored.length / 2);
+        assertThrows(UncheckedIOException.class, () -> converter.convertToEntityAttribute(truncated));
+    }
+}
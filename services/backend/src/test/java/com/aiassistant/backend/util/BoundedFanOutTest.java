@@ -0,0 +1,135 @@
+package com.aiassistant.backend.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedFanOutTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+    private final List<Integer> items = IntStream.range(0, 50).boxed().toList();
+    private final ConcurrentHashMap<Integer, AtomicInteger> callbacks = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Integer square(Integer item) {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.decrementAndGet();
+        }
+        return item * item;
+    }
+
+    private void record(int index, Integer item, Integer result, Throwable error) {
+        callbacks.computeIfAbsent(index, i -> new AtomicInteger()).incrementAndGet();
+        assertTrue(result == null ^ error == null, "exactly one of result and error for " + index);
+    }
+
+    private void assertEveryItemCalledBackOnce() {
+        assertEquals(items.size(), callbacks.size());
+        callbacks.forEach((index, count) -> assertEquals(1, count.get(), "callbacks for item " + index));
+    }
+
+    @Test
+    void runsEveryItemOnceWithinTheLimit() throws Exception {
+        BoundedFanOut.run(items, 3, pool, this::square, this::record, () -> false).get(10, TimeUnit.SECONDS);
+
+        assertEveryItemCalledBackOnce();
+        assertTrue(maxRunning.get() <= 3, "max running " + maxRunning.get());
+    }
+
+    @Test
+    void executorRejectingSomeLanesStillDrainsEveryItem() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        Executor saturated = task -> {
+            if (accepted.incrementAndGet() > 2) {
+                throw new RejectedExecutionException("pool full");
+            }
+            pool.execute(task);
+        };
+
+        BoundedFanOut.run(items, 6, saturated, this::square, this::record, () -> false).get(10, TimeUnit.SECONDS);
+
+        assertEveryItemCalledBackOnce();
+        assertTrue(maxRunning.get() <= 2, "max running " + maxRunning.get());
+    }
+
+    @Test
+    void executorRejectingEveryLaneThrows() {
+        Executor full = task -> {
+            throw new RejectedExecutionException("pool full");
+        };
+        assertThrows(RejectedExecutionException.class,
+                () -> BoundedFanOut.run(items, 4, full, this::square, this::record, () -> false));
+        assertTrue(callbacks.isEmpty());
+    }
+
+    @Test
+    void failedItemsAreCalledBackWithTheirErrorAndTheRestContinue() throws Exception {
+        ConcurrentHashMap<Integer, Throwable> errors = new ConcurrentHashMap<>();
+        BoundedFanOut.<Integer, Integer>run(items, 4, pool, item -> {
+            if (item % 10 == 0) {
+                throw new IllegalStateException("bad item " + item);
+            }
+            return item;
+        }, (index, item, result, error) -> {
+            record(index, item, result, error);
+            if (error != null) {
+                assertNull(result);
+                errors.put(item, error);
+            } else {
+                assertNotNull(result);
+            }
+        }, () -> false).get(10, TimeUnit.SECONDS);
+
+        assertEveryItemCalledBackOnce();
+        assertEquals(5, errors.size());
+        errors.forEach((item, error) -> assertEquals("bad item " + item, error.getMessage()));
+    }
+
+    @Test
+    void stopSkipsUnclaimedItems() throws Exception {
+        // One lane on the caller's thread, so items are claimed strictly in order
+        AtomicBoolean stop = new AtomicBoolean();
+        BoundedFanOut.<Integer, Integer>run(items, 1, Runnable::run, this::square, (index, item, result, error) -> {
+            record(index, item, result, error);
+            if (callbacks.size() == 5) {
+                stop.set(true);
+            }
+        }, stop::get).get(10, TimeUnit.SECONDS);
+
+        assertEquals(5, callbacks.size());
+        assertTrue(IntStream.range(0, 5).allMatch(callbacks::containsKey));
+    }
+
+    @Test
+    void emptyInputCompletesWithoutCallbacks() throws Exception {
+        BoundedFanOut.run(List.<Integer>of(), 4, pool, this::square, this::record, () -> false).get(10, TimeUnit.SECONDS);
+        assertTrue(callbacks.isEmpty());
+    }
+}
@@ -0,0 +1,27 @@
+package com.aiassistant.backend.util;
+
+import com.aiassistant.backend.exception.ApiException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Cursors come back from clients, so anything that is not one we issued must fail as a 400 (ApiException)
+final class CursorAssertions {
+
+    private CursorAssertions() {
+    }
+
+    static void assertRejected(Function<String, ?> decode, String... cursors) {
+        for (String cursor : cursors) {
+            assertThrows(ApiException.class, () -> decode.apply(cursor), cursor);
+        }
+    }
+
+    // Wraps a raw payload the way encode() does, so tests can forge cursors
+    static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
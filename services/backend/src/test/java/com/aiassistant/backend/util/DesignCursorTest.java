@@ -0,0 +1,51 @@
+package com.aiassistant.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static com.aiassistant.backend.util.CursorAssertions.assertRejected;
+import static com.aiassistant.backend.util.CursorAssertions.encode;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DesignCursorTest {
+
+    @Test
+    void roundTrips() {
+        DesignCursor cursor = new DesignCursor(Instant.parse("2024-05-01T12:30:45.123456Z"), 42L);
+        assertEquals(cursor, DesignCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encodesIsoInstantAndId() {
+        // Microseconds survive, so the next page starts exactly after the last row
+        assertEquals(encode("2024-05-01T12:30:45.123456Z|42"),
+                new DesignCursor(Instant.parse("2024-05-01T12:30:45.123456Z"), 42L).encode());
+        assertEquals(new DesignCursor(Instant.parse("2024-05-01T12:30:45Z"), 7L),
+                DesignCursor.decode(encode("2024-05-01T12:30:45Z|7")));
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertNull(DesignCursor.decode(null));
+        assertNull(DesignCursor.decode(""));
+        assertNull(DesignCursor.decode("   "));
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertRejected(DesignCursor::decode, "not base64!", "%%%",
+                encode("no separator"), encode("|"), encode("2024-05-01T12:30:45Z|"), encode("|42"));
+    }
+
+    @Test
+    void rejectsTamperedFields() {
+        assertRejected(DesignCursor::decode,
+                encode("yesterday|42"),
+                encode("1714566645|42"), // epoch seconds instead of an ISO instant
+                encode("2024-05-01T12:30:45Z|42; drop table designs"),
+                encode("2024-05-01T12:30:45Z|99999999999999999999"),
+                encode("2024-13-01T12:30:45Z|42"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.aiassistant.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Simulations on a fake clock: every granted call takes one tick, and the oldest running call finishes first
+class FairSchedulerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ArrayDeque<FairScheduler.Ticket> running = new ArrayDeque<>();
+    private final List<FairScheduler.Ticket> grants = new ArrayList<>();
+    private final Map<Object, Long> lastWait = new HashMap<>();
+
+    private FairScheduler scheduler(int slots, FairScheduler.Lane... lanes) {
+        return new FairScheduler(List.of(lanes), slots, clock::get, (lane, user, waitNanos) -> lastWait.put(user, waitNanos));
+    }
+
+    private void enqueue(FairScheduler scheduler, String lane, Object user, int count) {
+        for (int i = 0; i < count; i++) {
+            scheduler.enqueue(lane, user, t -> {
+                grants.add(t);
+                running.add(t);
+            });
+        }
+    }
+
+    private void finishOne(FairScheduler scheduler) {
+        clock.incrementAndGet();
+        scheduler.release(running.poll());
+    }
+
+    @Test
+    void lightUsersAreNotStuckBehindHeavyBacklog() {
+        FairScheduler scheduler = scheduler(4, new FairScheduler.Lane("advanced", 1, 4));
+        enqueue(scheduler, "advanced", "heavy", 500);
+        for (int i = 0; i < 5; i++) {
+            enqueue(scheduler, "advanced", "light" + i, 1);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            finishOne(scheduler);
+        }
+
+        // The first four went to heavy before anyone else arrived; after that users alternate with heavy
+        for (int i = 0; i < 5; i++) {
+            String user = "light" + i;
+            int position = indexOf(user);
+            assertTrue(position >= 0 && position < 4 + 2 * 5, user + " granted at " + position);
+            assertTrue(lastWait.get(user) <= 10, user + " waited " + lastWait.get(user) + " ticks");
+        }
+        assertEquals(500 - (grants.size() - 5), scheduler.queued("advanced"));
+    }
+
+    @Test
+    void lanesShareSlotsByWeight() {
+        FairScheduler scheduler = scheduler(1,
+                new FairScheduler.Lane("interactive", 8, 10),
+                new FairScheduler.Lane("batch", 3, 10),
+                new FairScheduler.Lane("advanced", 1, 10));
+        enqueue(scheduler, "interactive", "a", 2000);
+        enqueue(scheduler, "batch", "b", 2000);
+        enqueue(scheduler, "advanced", "c", 2000);
+
+        for (int i = 0; i < 1200; i++) {
+            finishOne(scheduler);
+        }
+
+        Map<String, Integer> byLane = new HashMap<>();
+        for (FairScheduler.Ticket t : grants.subList(0, 1200)) {
+            byLane.merge(t.lane(), 1, Integer::sum);
+        }
+        assertEquals(800, byLane.get("interactive"), 2);
+        assertEquals(300, byLane.get("batch"), 2);
+        assertEquals(100, byLane.get("advanced"), 2);
+    }
+
+    @Test
+    void usersShareTheirLaneEquallyWhateverTheirBacklog() {
+        FairScheduler scheduler = scheduler(2, new FairScheduler.Lane("batch", 1, 2));
+        enqueue(scheduler, "batch", "big", 1000);
+        enqueue(scheduler, "batch", "small", 100);
+
+        for (int i = 0; i < 200; i++) {
+            finishOne(scheduler);
+        }
+
+        long big = grants.subList(0, 200).stream().filter(t -> t.user().equals("big")).count();
+        assertEquals(100, big, 2);
+    }
+
+    @Test
+    void idleLaneGetsNoCreditForTimeSpentIdle() {
+        FairScheduler scheduler = scheduler(1,
+                new FairScheduler.Lane("interactive", 1, 1),
+                new FairScheduler.Lane("batch", 1, 1));
+        enqueue(scheduler, "batch", "b", 500);
+        for (int i = 0; i < 100; i++) {
+            finishOne(scheduler);
+        }
+        enqueue(scheduler, "interactive", "a", 100);
+        int from = grants.size();
+        for (int i = 0; i < 20; i++) {
+            finishOne(scheduler);
+        }
+
+        long interactive = grants.subList(from, from + 20).stream().filter(t -> t.lane().equals("interactive")).count();
+        assertEquals(10, interactive, 1);
+    }
+
+    @Test
+    void laneNeverExceedsMaxRunning() {
+        FairScheduler scheduler = scheduler(10,
+                new FairScheduler.Lane("interactive", 8, 10),
+                new FairScheduler.Lane("advanced", 1, 2));
+        enqueue(scheduler, "advanced", "c", 50);
+
+        assertEquals(2, scheduler.running("advanced"));
+        assertEquals(48, scheduler.queued("advanced"));
+
+        // The other lane can still use the free slots
+        enqueue(scheduler, "interactive", "a", 5);
+        assertEquals(5, scheduler.running("interactive"));
+
+        finishOne(scheduler);
+        assertEquals(2, scheduler.running("advanced"));
+    }
+
+    @Test
+    void cancelledTicketIsNeverGranted() {
+        FairScheduler scheduler = scheduler(1, new FairScheduler.Lane("interactive", 1, 1));
+        enqueue(scheduler, "interactive", "a", 1);
+        FairScheduler.Ticket first = scheduler.enqueue("interactive", "b", t -> grants.add(t));
+        FairScheduler.Ticket second = scheduler.enqueue("interactive", "c", t -> grants.add(t));
+
+        assertTrue(scheduler.cancel(first));
+        assertEquals(1, scheduler.queuedFor("c").size());
+        assertTrue(scheduler.queuedFor("b").isEmpty());
+
+        finishOne(scheduler);
+        assertEquals(second, grants.get(grants.size() - 1));
+        assertFalse(scheduler.cancel(second)); // already granted: the holder must release it
+        assertEquals(0, scheduler.queued("interactive"));
+    }
+
+    private int indexOf(Object user) {
+        for (int i = 0; i < grants.size(); i++) {
+            if (grants.get(i).user().equals(user)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
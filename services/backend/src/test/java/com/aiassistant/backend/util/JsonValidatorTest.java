@@ -0,0 +1,58 @@
+package com.aiassistant.backend.util;
+
+import com.aiassistant.backend.dto.design.AIDesignDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The typed check must accept and reject the same responses as the tree check
+class JsonValidatorTest {
+
+    private static final String DESIGN = "{\"services\":[],\"databases\":[],\"apis\":[],"
+            + "\"diagrams\":[{\"type\":\"mermaid\",\"content\":\"flowchart LR\"}],\"notes\":\"n\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonValidator validator = new JsonValidator(objectMapper);
+
+    private void assertSameVerdict(boolean valid, String json) throws Exception {
+        AIDesignDTO design = objectMapper.readValue(json, AIDesignDTO.class);
+        if (valid) {
+            assertDoesNotThrow(() -> validator.validateDesign(json), json);
+            assertDoesNotThrow(() -> validator.validateDesign(design), json);
+        } else {
+            assertThrows(IllegalArgumentException.class, () -> validator.validateDesign(json), json);
+            assertThrows(IllegalArgumentException.class, () -> validator.validateDesign(design), json);
+        }
+    }
+
+    @Test
+    void requiredKeysMayBeNullButNotMissing() throws Exception {
+        assertSameVerdict(true, DESIGN);
+        assertSameVerdict(true, DESIGN.replace("\"notes\":\"n\"", "\"notes\":null"));
+        assertSameVerdict(true, DESIGN.replace("\"services\":[]", "\"services\":null"));
+        assertSameVerdict(false, DESIGN.replace(",\"notes\":\"n\"", ""));
+        assertSameVerdict(false, DESIGN.replace("\"apis\":[],", ""));
+    }
+
+    @Test
+    void firstDiagramNeedsTypeAndContentKeys() throws Exception {
+        assertSameVerdict(true, DESIGN.replace("\"content\":\"flowchart LR\"", "\"content\":null"));
+        assertSameVerdict(false, DESIGN.replace(",\"content\":\"flowchart LR\"", ""));
+        assertSameVerdict(false, DESIGN.replace("{\"type\":\"mermaid\",\"content\":\"flowchart LR\"}", "null"));
+        assertSameVerdict(true, DESIGN.replace("[{\"type\":\"mermaid\",\"content\":\"flowchart LR\"}]", "[]"));
+    }
+
+    @Test
+    void unknownKeysNamedExtraAreKeptLikeAnyOther() throws Exception {
+        String json = DESIGN.replace("{\"services\"", "{\"extra\":{\"a\":1},\"cost\":2,\"services\"");
+        AIDesignDTO design = objectMapper.readValue(json, AIDesignDTO.class);
+
+        assertEquals(Map.of("extra", Map.of("a", 1), "cost", 2), design.getExtra());
+        assertEquals(objectMapper.readTree(json), objectMapper.readTree(objectMapper.writeValueAsString(design)));
+    }
+}
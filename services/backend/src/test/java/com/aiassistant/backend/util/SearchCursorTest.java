@@ -0,0 +1,45 @@
+package com.aiassistant.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static com.aiassistant.backend.util.CursorAssertions.assertRejected;
+import static com.aiassistant.backend.util.CursorAssertions.encode;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SearchCursorTest {
+
+    @Test
+    void roundTrips() {
+        SearchCursor cursor = new SearchCursor(0.0123456f, 42L);
+        assertEquals(cursor, SearchCursor.decode(cursor.encode()));
+        assertEquals(new SearchCursor(0f, 1L), SearchCursor.decode(new SearchCursor(0f, 1L).encode()));
+    }
+
+    @Test
+    void encodesRankAndId() {
+        assertEquals(encode("0.5|42"), new SearchCursor(0.5f, 42L).encode());
+        // Tiny ranks come out in exponent form and still read back bit for bit
+        assertEquals(encode("1.0E-5|3"), new SearchCursor(1.0e-5f, 3L).encode());
+        assertEquals(new SearchCursor(1.0e-5f, 3L), SearchCursor.decode(encode("1.0E-5|3")));
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertNull(SearchCursor.decode(null));
+        assertNull(SearchCursor.decode(""));
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertRejected(SearchCursor::decode, "not base64!",
+                encode("no separator"), encode("|"), encode("0.5|"), encode("|42"));
+    }
+
+    @Test
+    void rejectsTamperedFields() {
+        assertRejected(SearchCursor::decode, encode("high|42"), encode("0.5|forty-two"));
+        // Parse as floats, but no ranked row compares below them the way a real rank does
+        assertRejected(SearchCursor::decode, encode("NaN|42"), encode("Infinity|42"), encode("-Infinity|42"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.aiassistant.backend.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// The leader's work blocks on a latch that is only released once the followers are waiting on it
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Future<String> leader(RuntimeException failure) throws InterruptedException {
+        Future<String> call = pool.submit(() -> flight.execute("k", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            if (failure != null) {
+                throw failure;
+            }
+            return "value";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return call;
+    }
+
+    private Future<String> follower() {
+        return pool.submit(() -> flight.execute("k", () -> {
+            runs.incrementAndGet();
+            return "own";
+        }));
+    }
+
+    private void awaitWaiters(int followers) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.waiters("k") < followers) {
+            assertTrue(System.nanoTime() < deadline, "followers never joined the leader");
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        Future<String> first = leader(null);
+        Future<String> second = follower();
+        Future<String> third = follower();
+        awaitWaiters(2);
+        assertEquals(1, flight.inFlightCount());
+        release.countDown();
+
+        assertEquals("value", first.get(5, TimeUnit.SECONDS));
+        assertEquals("value", second.get(5, TimeUnit.SECONDS));
+        assertEquals("value", third.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+        assertEquals(0, flight.inFlightCount());
+        assertEquals(0, flight.waiters("k"));
+    }
+
+    @Test
+    void failureReachesEveryCallerAsTheSameException() throws Exception {
+        IllegalStateException failure = new IllegalStateException("AI down");
+        Future<String> first = leader(failure);
+        Future<String> second = follower();
+        awaitWaiters(1);
+        assertEquals(1, flight.inFlightCount());
+        release.countDown();
+
+        assertSame(failure, cause(first));
+        assertSame(failure, cause(second));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void keyIsFreedAfterFailureSoTheNextCallRunsAgain() {
+        assertThrows(IllegalStateException.class, () -> flight.execute("k", () -> {
+            throw new IllegalStateException("AI down");
+        }));
+        assertEquals(0, flight.inFlightCount());
+
+        assertEquals("retried", flight.execute("k", () -> "retried"));
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void differentKeysRunIndependently() throws Exception {
+        Future<String> first = leader(null);
+        assertEquals("other", flight.execute("k2", () -> "other"));
+        assertEquals(1, flight.inFlightCount());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    private static Throwable cause(Future<String> call) throws InterruptedException {
+        try {
+            call.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            fail("call did not finish");
+        }
+        fail("call did not fail");
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
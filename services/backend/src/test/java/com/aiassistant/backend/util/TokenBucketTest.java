@@ -0,0 +1,78 @@
+package com.aiassistant.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Time is passed in, so every case runs on exact nanoseconds: one token per 100 ns, burst of 5
+class TokenBucketTest {
+
+    private static final long INTERVAL = 100;
+    private static final int BURST = 5;
+
+    private final TokenBucket bucket = new TokenBucket(INTERVAL, BURST, 0);
+
+    @Test
+    void fullBucketAllowsTheBurstThenSaysHowLongToWait() {
+        for (int i = 0; i < BURST; i++) {
+            assertEquals(0, bucket.tryTake(1, 0), "take " + i);
+        }
+        assertEquals(INTERVAL, bucket.tryTake(1, 0));
+        assertEquals(3 * INTERVAL, bucket.tryTake(3, 0));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        assertEquals(0, bucket.tryTake(BURST, 0));
+        assertEquals(INTERVAL - 30, bucket.tryTake(1, 30));
+        assertEquals(0, bucket.tryTake(1, INTERVAL));
+        assertEquals(INTERVAL, bucket.tryTake(1, INTERVAL));
+
+        // Waiting exactly as long as told always succeeds
+        long wait = bucket.tryTake(2, 150);
+        assertEquals(0, bucket.tryTake(2, 150 + wait));
+    }
+
+    @Test
+    void idleTimeRefillsNoMoreThanTheBurst() {
+        assertEquals(0, bucket.tryTake(BURST, 0));
+        long later = 1_000_000;
+        assertEquals(0, bucket.tryTake(BURST, later));
+        assertEquals(INTERVAL, bucket.tryTake(1, later));
+    }
+
+    @Test
+    void refusedTakesCostNothing() {
+        assertEquals(0, bucket.tryTake(BURST, 0));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(bucket.tryTake(1, 0) > 0);
+        }
+        assertEquals(0, bucket.tryTake(1, INTERVAL));
+    }
+
+    @Test
+    void refundedTokensCanBeTakenAgain() {
+        assertEquals(0, bucket.tryTake(BURST, 0));
+        bucket.refund(2);
+        assertEquals(0, bucket.tryTake(2, 0));
+        assertEquals(INTERVAL, bucket.tryTake(1, 0));
+    }
+
+    @Test
+    void refundNeverFillsPastTheBurst() {
+        assertEquals(0, bucket.tryTake(1, 0));
+        bucket.refund(1);
+        bucket.refund(3);
+        assertEquals(0, bucket.tryTake(BURST, 0));
+        assertEquals(INTERVAL, bucket.tryTake(1, 0));
+    }
+
+    @Test
+    void costAboveTheBurstNeverFits() {
+        assertEquals(Long.MAX_VALUE, bucket.tryTake(BURST + 1, 0));
+        assertEquals(Long.MAX_VALUE, bucket.tryTake(BURST + 1, 1_000_000));
+        // and took nothing: the whole burst is still there
+        assertEquals(0, bucket.tryTake(BURST, 1_000_000));
+    }
+}